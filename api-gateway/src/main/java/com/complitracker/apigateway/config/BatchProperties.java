@@ -0,0 +1,19 @@
+package com.complitracker.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.batch")
+public class BatchProperties {
+    /** Largest number of sub-requests accepted in one batch. */
+    private int maxRequests = 25;
+    /** Sub-requests of one batch in flight at the same time. */
+    private int concurrency = 6;
+    /** Applied to each sub-request on its own. */
+    private Duration timeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,25 @@
+package com.complitracker.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.dashboard")
+public class DashboardProperties {
+    private String coreServiceUri = "http://core-service";
+    private String notificationServiceUri = "http://notification-service";
+    /** Applied to any dashboard part without its own entry in timeouts. */
+    private Duration defaultTimeout = Duration.ofSeconds(2);
+    /** Per-part overrides keyed by part name (stats, deadlines, riskScore, notifications). */
+    private Map<String, Duration> timeouts = new HashMap<>();
+
+    public Duration timeoutFor(String part) {
+        return timeouts.getOrDefault(part, defaultTimeout);
+    }
+}
@@ -0,0 +1,22 @@
+package com.complitracker.apigateway.config;
+
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+public class WebClientConfig {
+
+    /**
+     * WebClient that resolves lb://service-id URIs through the same Eureka
+     * load balancer the gateway routes use.
+     */
+    @Bean
+    public WebClient loadBalancedWebClient(
+        WebClient.Builder builder,
+        ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction
+    ) {
+        return builder.filter(loadBalancerFunction).build();
+    }
+}
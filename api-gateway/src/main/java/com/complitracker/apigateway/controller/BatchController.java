@@ -0,0 +1,45 @@
+package com.complitracker.apigateway.controller;
+
+import com.complitracker.apigateway.dto.BatchDTO;
+import com.complitracker.apigateway.security.JwtClaimsResolver;
+import com.complitracker.apigateway.service.BatchService;
+import io.jsonwebtoken.Claims;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/batch")
+public class BatchController {
+
+    private final BatchService batchService;
+
+    public BatchController(BatchService batchService) {
+        this.batchService = batchService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<BatchDTO.BatchResponse>> execute(
+        ServerWebExchange exchange,
+        @RequestBody BatchDTO.BatchRequest batch
+    ) {
+        if (exchange.getRequest().getHeaders().containsKey(BatchService.SUB_REQUEST_HEADER)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+        }
+        Claims claims = exchange.getAttribute(JwtClaimsResolver.CLAIMS_ATTRIBUTE);
+        if (claims == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        return batchService
+            .execute(exchange, authorization, batch)
+            .map(ResponseEntity::ok);
+    }
+}
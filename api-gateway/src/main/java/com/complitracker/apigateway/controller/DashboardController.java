@@ -0,0 +1,44 @@
+package com.complitracker.apigateway.controller;
+
+import com.complitracker.apigateway.security.JwtClaimsResolver;
+import com.complitracker.apigateway.service.DashboardService;
+import io.jsonwebtoken.Claims;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Map<String, Object>>> getDashboard(
+        ServerWebExchange exchange,
+        @RequestParam(defaultValue = "30") int days,
+        @RequestParam(defaultValue = "5") int notificationLimit
+    ) {
+        Claims claims = exchange.getAttribute(JwtClaimsResolver.CLAIMS_ATTRIBUTE);
+        if (claims == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        return dashboardService
+            .getDashboard(claims.getSubject(), authorization, days, notificationLimit)
+            .map(ResponseEntity::ok);
+    }
+}
@@ -3,7 +3,6 @@ package com.complitracker.apigateway.controller;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
-import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -11,31 +10,38 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/fallback")
 public class FallbackController {
 
-    @GetMapping("/auth")
+    @RequestMapping("/auth")
     public ResponseEntity<String> authFallback() {
         return ResponseEntity
             .status(HttpStatus.SERVICE_UNAVAILABLE)
             .body("Auth Service is currently unavailable. Please try again later.");
     }
 
-    @GetMapping("/document")
+    @RequestMapping("/document")
     public ResponseEntity<String> documentFallback() {
         return ResponseEntity
             .status(HttpStatus.SERVICE_UNAVAILABLE)
             .body("Document Service is currently unavailable. Please try again later.");
     }
 
-    @GetMapping("/email")
+    @RequestMapping("/email")
     public ResponseEntity<String> emailFallback() {
         return ResponseEntity
             .status(HttpStatus.SERVICE_UNAVAILABLE)
             .body("Email Service is currently unavailable. Please try again later.");
     }
 
-    @GetMapping("/core")
+    @RequestMapping("/core")
     public ResponseEntity<String> coreFallback() {
         return ResponseEntity
             .status(HttpStatus.SERVICE_UNAVAILABLE)
             .body("Core Service is currently unavailable. Please try again later.");
     }
+
+    @RequestMapping("/notification")
+    public ResponseEntity<String> notificationFallback() {
+        return ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .body("Notification Service is currently unavailable. Please try again later.");
+    }
 }
\ No newline at end of file
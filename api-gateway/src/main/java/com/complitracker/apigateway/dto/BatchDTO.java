@@ -0,0 +1,62 @@
+package com.complitracker.apigateway.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BatchDTO {
+
+    @Data
+    public static class BatchRequest {
+        private List<SubRequest> requests = new ArrayList<>();
+    }
+
+    @Data
+    public static class SubRequest {
+        /** Defaults to the request's position in the batch. */
+        private String id;
+        private String method = "GET";
+        /**
+         * Gateway path including any query string. May reference fields of a
+         * dependency's JSON body as ${id.field.nested}.
+         */
+        private String path;
+        private Map<String, String> headers = new HashMap<>();
+        private JsonNode body;
+        /** Ids that must complete successfully before this request is sent. */
+        private List<String> dependsOn = new ArrayList<>();
+    }
+
+    @Data
+    public static class BatchResponse {
+        private final List<SubResponse> responses;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class SubResponse {
+        private String id;
+        private int status;
+        private JsonNode body;
+        private String error;
+
+        public static SubResponse error(String id, int status, String error) {
+            return new SubResponse(id, status, null, error);
+        }
+
+        @JsonIgnore
+        public boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
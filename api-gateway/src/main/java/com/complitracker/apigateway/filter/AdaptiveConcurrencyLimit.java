@@ -0,0 +1,118 @@
+package com.complitracker.apigateway.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient-based concurrency limit for one downstream route.
+ *
+ * Two moving averages of response time are kept: a short one reflecting the
+ * current queueing delay and a long one approximating the route's unloaded
+ * latency. While the short average stays close to the long one the limit
+ * grows by a small queue allowance; once latency rises the ratio between the
+ * two shrinks the limit proportionally. Errors and timeouts cut the limit
+ * multiplicatively (AIMD-style), so a stalled service is throttled quickly.
+ *
+ * Admission is a single atomic increment; only completed requests take the
+ * lock to update the averages.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_WINDOW_ALPHA = 2.0 / (10 + 1);
+    private static final double LONG_WINDOW_ALPHA = 2.0 / (600 + 1);
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double backoffRatio;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimit(
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        double rttTolerance,
+        double backoffRatio,
+        double smoothing
+    ) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.backoffRatio = backoffRatio;
+        this.smoothing = smoothing;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Reserves a slot, or returns false when the route is at its limit. A
+     * successful call must be paired with {@link #release}.
+     */
+    public boolean tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > (int) limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Frees the slot and feeds the outcome into the limit. Pass sample=false
+     * for requests that say nothing about downstream health (client cancels).
+     */
+    public void release(long rttNanos, boolean failed, boolean sample) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (!sample) {
+            return;
+        }
+        if (failed) {
+            onFailure();
+        } else {
+            onSuccess(rttNanos, inFlightAtCompletion);
+        }
+    }
+
+    private synchronized void onFailure() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+    private synchronized void onSuccess(long rttNanos, int inFlightAtCompletion) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += SHORT_WINDOW_ALPHA * (rttNanos - shortRttNanos);
+        longRttNanos += LONG_WINDOW_ALPHA * (rttNanos - longRttNanos);
+
+        // Let the baseline recover quickly after a period of sustained slowness
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        // An under-used limit says nothing about how much more the route can take
+        if (inFlightAtCompletion < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+        double queueAllowance = Math.sqrt(limit);
+        double newLimit = limit * gradient + queueAllowance;
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
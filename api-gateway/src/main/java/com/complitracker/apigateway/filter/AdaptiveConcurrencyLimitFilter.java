@@ -0,0 +1,126 @@
+package com.complitracker.apigateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.DispatcherHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caps in-flight requests per route with an {@link AdaptiveConcurrencyLimit}.
+ * Requests over the limit never reach the load balancer; they are forwarded
+ * straight to the route's fallback endpoint (see FallbackController), or get a
+ * bare 503 when no fallback is configured.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimitFilter
+    extends AbstractGatewayFilterFactory<AdaptiveConcurrencyLimitFilter.Config> {
+
+    static final String LIMIT_METRIC = "gateway.route.concurrency.limit";
+    static final String SHED_METRIC = "gateway.route.concurrency.shed";
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<DispatcherHandler> dispatcherHandler;
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimitFilter(
+        MeterRegistry meterRegistry,
+        ObjectProvider<DispatcherHandler> dispatcherHandler
+    ) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.dispatcherHandler = dispatcherHandler;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        // Keep the learned limit when routes are refreshed
+        AdaptiveConcurrencyLimit limit = limits.computeIfAbsent(routeId, id -> newLimit(id, config));
+        Counter shed = Counter.builder(SHED_METRIC)
+            .description("Requests rejected because the route was at its concurrency limit")
+            .tag("route", routeId)
+            .register(meterRegistry);
+        String fallbackPath = config.getFallbackUri() != null
+            ? URI.create(config.getFallbackUri()).getPath()
+            : null;
+
+        return (exchange, chain) -> {
+            if (!limit.tryAcquire()) {
+                shed.increment();
+                log.debug("Shedding request to route {}: {} in flight, limit {}",
+                    routeId, limit.getInFlight(), limit.getLimit());
+                return shed(exchange, fallbackPath);
+            }
+
+            long startNanos = System.nanoTime();
+            return chain.filter(exchange)
+                .doFinally(signal -> {
+                    Integer status = exchange.getResponse().getRawStatusCode();
+                    boolean failed = signal == SignalType.ON_ERROR
+                        || (status != null && status >= 500);
+                    limit.release(System.nanoTime() - startNanos, failed, signal != SignalType.CANCEL);
+                });
+        };
+    }
+
+    private AdaptiveConcurrencyLimit newLimit(String routeId, Config config) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+            config.getInitialLimit(),
+            config.getMinLimit(),
+            config.getMaxLimit(),
+            config.getRttTolerance(),
+            config.getBackoffRatio(),
+            config.getSmoothing()
+        );
+        Gauge.builder(LIMIT_METRIC, limit, AdaptiveConcurrencyLimit::getLimit)
+            .description("Current adaptive concurrency limit per route")
+            .tag("route", routeId)
+            .register(meterRegistry);
+        return limit;
+    }
+
+    private Mono<Void> shed(ServerWebExchange exchange, String fallbackPath) {
+        DispatcherHandler handler = dispatcherHandler.getIfAvailable();
+        if (fallbackPath == null || handler == null) {
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return exchange.getResponse().setComplete();
+        }
+        ServerHttpRequest fallbackRequest = exchange.getRequest()
+            .mutate()
+            .path(fallbackPath)
+            .build();
+        return handler.handle(exchange.mutate().request(fallbackRequest).build());
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        /** Where shed requests go, e.g. forward:/fallback/core. */
+        private String fallbackUri;
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        /** How far short-term latency may exceed the long-term baseline before the limit shrinks. */
+        private double rttTolerance = 1.5;
+        /** Multiplier applied to the limit on a 5xx or error. */
+        private double backoffRatio = 0.9;
+        private double smoothing = 0.2;
+    }
+}
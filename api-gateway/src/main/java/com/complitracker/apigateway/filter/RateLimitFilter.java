@@ -0,0 +1,202 @@
+package com.complitracker.apigateway.filter;
+
+import com.complitracker.apigateway.ratelimit.RateLimitDecision;
+import com.complitracker.apigateway.ratelimit.RateLimitStore;
+import com.complitracker.apigateway.security.JwtClaimsResolver;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token-bucket rate limiting per route. Every caller gets its own bucket,
+ * keyed by the authenticated subject (the X-User-Id sent downstream) or, for
+ * anonymous requests, the client address. Role limits add a bucket shared by
+ * all callers holding that role, e.g. to cap integration clients as a group.
+ *
+ * Rejected requests get 429 with Retry-After; allowed ones carry
+ * X-RateLimit-Remaining for the caller's own bucket. A request denied by a
+ * role bucket gets its caller token back, so a saturated group does not also
+ * drain each member's own budget.
+ */
+@Component
+public class RateLimitFilter
+    extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    static final String REJECTED_METRIC = "gateway.rate.limit.rejected";
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimitStore store;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimitStore store, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        Map<String, Limit> roleLimits = parseRoleLimits(config.getRoleLimits());
+        Counter userRejected = rejectedCounter(routeId, "user");
+        Counter roleRejected = rejectedCounter(routeId, "role");
+
+        GatewayFilter filter = (exchange, chain) -> {
+            Claims claims = exchange.getAttribute(JwtClaimsResolver.CLAIMS_ATTRIBUTE);
+            String userKey = routeId + "|user|" + callerKey(exchange, claims);
+
+            return store.tryConsume(userKey, config.getBurstCapacity(), config.getReplenishRate())
+                .flatMap(userDecision -> {
+                    if (!userDecision.isAllowed()) {
+                        userRejected.increment();
+                        return reject(exchange, userDecision);
+                    }
+                    return consumeRoleBuckets(routeId, limitedRoles(claims, roleLimits), roleLimits, 0)
+                        .flatMap(roleDecision -> {
+                            if (!roleDecision.isAllowed()) {
+                                roleRejected.increment();
+                                // The group is out of budget, not this caller: give the token back
+                                return store.refund(userKey, config.getBurstCapacity())
+                                    .then(reject(exchange, roleDecision));
+                            }
+                            // Set at commit so the value is never captured into the response cache
+                            // and always reflects this request rather than a replayed one.
+                            ServerHttpResponse response = exchange.getResponse();
+                            response.beforeCommit(() -> {
+                                response.getHeaders()
+                                    .set(REMAINING_HEADER, String.valueOf(userDecision.getRemainingTokens()));
+                                return Mono.empty();
+                            });
+                            return chain.filter(exchange);
+                        });
+                });
+        };
+
+        // Ahead of ResponseCacheFilter and RequestCoalescingFilter, so cached and
+        // coalesced replies still count against the caller's budget
+        return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 3);
+    }
+
+    /**
+     * Takes a token from each role bucket in turn. On the first denial the
+     * tokens already taken from earlier roles are refunded and the denial is
+     * returned; an allow means every bucket was charged.
+     */
+    private Mono<RateLimitDecision> consumeRoleBuckets(
+        String routeId,
+        List<String> roles,
+        Map<String, Limit> roleLimits,
+        int index
+    ) {
+        if (index == roles.size()) {
+            return Mono.just(RateLimitDecision.allowed(Long.MAX_VALUE));
+        }
+        String key = routeId + "|role|" + roles.get(index);
+        Limit limit = roleLimits.get(roles.get(index));
+        return store.tryConsume(key, limit.burstCapacity, limit.replenishRate)
+            .flatMap(decision -> {
+                if (!decision.isAllowed()) {
+                    return Mono.just(decision);
+                }
+                return consumeRoleBuckets(routeId, roles, roleLimits, index + 1)
+                    .flatMap(rest -> rest.isAllowed()
+                        ? Mono.just(rest)
+                        : store.refund(key, limit.burstCapacity).thenReturn(rest));
+            });
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, RateLimitDecision decision) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        long retryAfterSeconds = Math.max(1, (decision.getRetryAfter().toMillis() + 999) / 1000);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.getHeaders().set(REMAINING_HEADER, "0");
+        return response.setComplete();
+    }
+
+    private String callerKey(ServerWebExchange exchange, Claims claims) {
+        if (claims != null && claims.getSubject() != null) {
+            return claims.getSubject();
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        return "anonymous:" + (remoteAddress != null ? remoteAddress.getHostString() : "unknown");
+    }
+
+    private List<String> limitedRoles(Claims claims, Map<String, Limit> roleLimits) {
+        if (claims == null || roleLimits.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> roles = claims.get("roles", List.class);
+        if (roles == null) {
+            return Collections.emptyList();
+        }
+        List<String> limited = new ArrayList<>();
+        for (String role : roles) {
+            if (roleLimits.containsKey(role) && !limited.contains(role)) {
+                limited.add(role);
+            }
+        }
+        return limited;
+    }
+
+    private Map<String, Limit> parseRoleLimits(List<String> roleLimits) {
+        Map<String, Limit> limits = new LinkedHashMap<>();
+        for (String entry : roleLimits) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(
+                    "Role limit must be ROLE:replenishRate:burstCapacity, got: " + entry);
+            }
+            limits.put(parts[0], new Limit(Double.parseDouble(parts[1]), Long.parseLong(parts[2])));
+        }
+        return limits;
+    }
+
+    private Counter rejectedCounter(String routeId, String scope) {
+        return Counter.builder(REJECTED_METRIC)
+            .description("Requests rejected by the gateway rate limiter")
+            .tag("route", routeId)
+            .tag("scope", scope)
+            .register(meterRegistry);
+    }
+
+    private static class Limit {
+        private final double replenishRate;
+        private final long burstCapacity;
+
+        Limit(double replenishRate, long burstCapacity) {
+            this.replenishRate = replenishRate;
+            this.burstCapacity = burstCapacity;
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        /** Tokens per second added to each caller's bucket. */
+        private double replenishRate = 20;
+        /** Maximum burst per caller. */
+        private long burstCapacity = 40;
+        /** Shared per-role buckets as ROLE:replenishRate:burstCapacity. */
+        private List<String> roleLimits = new ArrayList<>();
+    }
+}
@@ -0,0 +1,218 @@
+package com.complitracker.apigateway.filter;
+
+import com.complitracker.apigateway.security.JwtClaimsResolver;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Single-flight coalescing for identical GETs on a route. The first request
+ * for a key (path, query, caller identity and any configured vary headers)
+ * goes downstream; identical requests arriving while it is in flight wait for
+ * its response and replay the same status, headers and body. Once the leader
+ * completes, the key is released, so nothing is served after the fact.
+ *
+ * Followers beyond maxWaiters, and followers whose leader ends without a
+ * response body, go downstream on their own.
+ */
+@Component
+public class RequestCoalescingFilter
+    extends AbstractGatewayFilterFactory<RequestCoalescingFilter.Config> {
+
+    static final String REQUESTS_METRIC = "gateway.coalescing.requests";
+    static final String RATIO_METRIC = "gateway.coalescing.ratio";
+
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, InFlightCall> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescingFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        Counter leaders = requestCounter(routeId, "leader");
+        Counter followers = requestCounter(routeId, "follower");
+        Counter bypassed = requestCounter(routeId, "bypassed");
+        Gauge.builder(RATIO_METRIC, () -> {
+                double total = leaders.count() + followers.count() + bypassed.count();
+                return total == 0 ? 0.0 : followers.count() / total;
+            })
+            .description("Share of coalescable requests served from another request's response")
+            .tag("route", routeId)
+            .register(meterRegistry);
+
+        GatewayFilter filter = (exchange, chain) -> {
+            if (!isCoalescable(exchange.getRequest(), config)) {
+                return chain.filter(exchange);
+            }
+
+            String key = routeId + '|' + requestKey(exchange, config);
+            InFlightCall created = new InFlightCall();
+            InFlightCall call = inFlight.putIfAbsent(key, created);
+
+            if (call == null) {
+                leaders.increment();
+                return lead(exchange, chain::filter, key, created);
+            }
+
+            if (call.waiters.incrementAndGet() > config.getMaxWaiters()) {
+                call.waiters.decrementAndGet();
+                bypassed.increment();
+                return chain.filter(exchange);
+            }
+
+            followers.increment();
+            return call.response.asMono()
+                .flatMap(response -> replay(exchange, response))
+                .switchIfEmpty(Mono.defer(() -> chain.filter(exchange)));
+        };
+
+        // Must run before NettyWriteResponseFilter hands the body to the response
+        return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private boolean isCoalescable(ServerHttpRequest request, Config config) {
+        if (request.getMethod() != HttpMethod.GET) {
+            return false;
+        }
+        if (config.getPaths().isEmpty()) {
+            return true;
+        }
+        String path = request.getPath().value();
+        for (String pattern : config.getPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String requestKey(ServerWebExchange exchange, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        StringBuilder key = new StringBuilder(request.getPath().value());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        if (config.isPerUser()) {
+            // Same subject JwtTokenFilter sends downstream as X-User-Id
+            Claims claims = exchange.getAttribute(JwtClaimsResolver.CLAIMS_ATTRIBUTE);
+            key.append("|user=").append(claims != null ? claims.getSubject() : "");
+        }
+        for (String header : config.getVaryHeaders()) {
+            key.append('|').append(header).append('=').append(request.getHeaders().getValuesAsList(header));
+        }
+        return key.toString();
+    }
+
+    private Mono<Void> lead(
+        ServerWebExchange exchange,
+        Function<ServerWebExchange, Mono<Void>> chain,
+        String key,
+        InFlightCall call
+    ) {
+        ServerHttpResponse original = exchange.getResponse();
+        ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(original) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        inFlight.remove(key, call);
+                        call.response.tryEmitValue(new CachedResponse(
+                            getRawStatusCode(),
+                            HttpHeaders.readOnlyHttpHeaders(getHeaders()),
+                            bytes
+                        ));
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+            }
+        };
+
+        return chain.apply(exchange.mutate().response(capturing).build())
+            .doFinally(signal -> {
+                // Leader failed or produced no body: let followers go downstream
+                inFlight.remove(key, call);
+                call.response.tryEmitEmpty();
+            });
+    }
+
+    private Mono<Void> replay(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (cached.getStatus() != null) {
+            response.setRawStatusCode(cached.getStatus());
+        }
+        response.getHeaders().putAll(cached.getHeaders());
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().setContentLength(cached.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    private Counter requestCounter(String routeId, String result) {
+        return Counter.builder(REQUESTS_METRIC)
+            .description("Coalescable GET requests by how they were served")
+            .tag("route", routeId)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static class InFlightCall {
+        private final Sinks.One<CachedResponse> response = Sinks.one();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+
+    @lombok.Value
+    private static class CachedResponse {
+        Integer status;
+        HttpHeaders headers;
+        byte[] body;
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        /** Ant-style paths to coalesce; empty means every GET on the route. */
+        private List<String> paths = new ArrayList<>();
+        /** Key on the authenticated subject, for responses that differ per user. */
+        private boolean perUser = true;
+        /** Extra request headers whose values must match, e.g. Accept. */
+        private List<String> varyHeaders = new ArrayList<>();
+        /** Followers allowed to wait on one in-flight call. */
+        private int maxWaiters = 500;
+    }
+}
@@ -0,0 +1,294 @@
+package com.complitracker.apigateway.filter;
+
+import com.complitracker.apigateway.security.JwtClaimsResolver;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches 200 responses of allow-listed GET paths on a route, with a strong
+ * ETag computed from the body. Cached and conditional requests are answered
+ * at the gateway: a matching If-None-Match gets a 304 without a downstream
+ * call. Any non-GET on the route drops cached entries under the same resource
+ * prefix, before the write is forwarded and again once it completes.
+ *
+ * Each invalidation also advances a generation counter for the prefix. A GET
+ * notes the generation of its own prefix when it starts and only stores its
+ * response if that has not moved since, so a read that was already in flight
+ * during a write cannot put the pre-write body back.
+ *
+ * Invalidation is local to this gateway instance, so keep the TTL short on
+ * routes that are written through more than one replica.
+ */
+@Component
+public class ResponseCacheFilter
+    extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    static final String CACHE_METRIC_NAME = "gatewayResponses";
+
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Cache<String, CachedResponse>> caches = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, AtomicLong>> generations = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        Cache<String, CachedResponse> cache = caches.computeIfAbsent(routeId, id -> newCache(id, config));
+        Map<String, AtomicLong> routeGenerations = generations.computeIfAbsent(routeId, id -> new ConcurrentHashMap<>());
+
+        GatewayFilter filter = (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                if (request.getMethod() == HttpMethod.HEAD || request.getMethod() == HttpMethod.OPTIONS) {
+                    return chain.filter(exchange);
+                }
+                String prefix = resourcePrefix(request.getPath().value(), config.getInvalidationSegments());
+                invalidate(cache, routeGenerations, prefix);
+                return chain.filter(exchange).doFinally(signal -> invalidate(cache, routeGenerations, prefix));
+            }
+            if (!isCacheable(request, config)) {
+                return chain.filter(exchange);
+            }
+
+            String key = cacheKey(exchange, config);
+            CachedResponse cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return respondFromCache(exchange, cached);
+            }
+            AtomicLong generation = routeGenerations.computeIfAbsent(
+                resourcePrefix(request.getPath().value(), config.getInvalidationSegments()), prefix -> new AtomicLong());
+            ServerHttpResponseDecorator response = capturing(exchange, cache, key, generation, generation.get(), config);
+            return chain.filter(exchange.mutate().response(response).build());
+        };
+
+        // Outside RequestCoalescingFilter, so replayed follower responses are cached too
+        return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2);
+    }
+
+    private Cache<String, CachedResponse> newCache(String routeId, Config config) {
+        Cache<String, CachedResponse> cache = Caffeine.newBuilder()
+            .maximumWeight(config.getMaxSizeBytes())
+            .weigher((String key, CachedResponse response) -> key.length() + response.getBody().length)
+            .expireAfterWrite(config.getTtl())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_METRIC_NAME, Tags.of("route", routeId));
+        return cache;
+    }
+
+    private boolean isCacheable(ServerHttpRequest request, Config config) {
+        String requestCacheControl = request.getHeaders().getCacheControl();
+        if (requestCacheControl != null && requestCacheControl.contains("no-cache")) {
+            return false;
+        }
+        String path = request.getPath().value();
+        for (String pattern : config.getPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String cacheKey(ServerWebExchange exchange, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        StringBuilder key = new StringBuilder(request.getPath().value());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        if (config.isPerUser()) {
+            Claims claims = exchange.getAttribute(JwtClaimsResolver.CLAIMS_ATTRIBUTE);
+            key.append("|user=").append(claims != null ? claims.getSubject() : "");
+        }
+        return key.toString();
+    }
+
+    private ServerHttpResponseDecorator capturing(
+        ServerWebExchange exchange,
+        Cache<String, CachedResponse> cache,
+        String key,
+        AtomicLong generation,
+        long startGeneration,
+        Config config
+    ) {
+        String ifNoneMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        String path = exchange.getRequest().getPath().value();
+
+        return new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                if (!isStorable(this)) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        String etag = strongEtag(bytes);
+                        getHeaders().setETag(etag);
+                        if (bytes.length <= config.getMaxEntryBytes() && generation.get() == startGeneration) {
+                            HttpHeaders headers = new HttpHeaders();
+                            headers.putAll(getHeaders());
+                            cache.put(key, new CachedResponse(
+                                path,
+                                etag,
+                                HttpHeaders.readOnlyHttpHeaders(headers),
+                                bytes
+                            ));
+                        }
+                        if (etagMatches(ifNoneMatch, etag)) {
+                            return notModified(this, etag);
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+            }
+        };
+    }
+
+    private boolean isStorable(ServerHttpResponse response) {
+        if (response.getStatusCode() != HttpStatus.OK) {
+            return false;
+        }
+        HttpHeaders headers = response.getHeaders();
+        String cacheControl = headers.getCacheControl();
+        return !headers.containsKey(HttpHeaders.SET_COOKIE)
+            && (cacheControl == null || !cacheControl.contains("no-store"));
+    }
+
+    private Mono<Void> respondFromCache(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        String ifNoneMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (etagMatches(ifNoneMatch, cached.getEtag())) {
+            return notModified(response, cached.getEtag());
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().putAll(cached.getHeaders());
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().setContentLength(cached.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    private Mono<Void> notModified(ServerHttpResponse response, String etag) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().setETag(etag);
+        return response.setComplete();
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void invalidate(Cache<String, CachedResponse> cache, Map<String, AtomicLong> routeGenerations,
+                            String prefix) {
+        routeGenerations.computeIfAbsent(prefix, key -> new AtomicLong()).incrementAndGet();
+        routeGenerations.forEach((generationPrefix, generation) -> {
+            if (generationPrefix.startsWith(prefix + "/") || prefix.equals("/")) {
+                generation.incrementAndGet();
+            }
+        });
+        cache.asMap().values().removeIf(response -> {
+            String path = response.getPath();
+            return path.equals(prefix) || path.startsWith(prefix + "/");
+        });
+    }
+
+    /** First {@code segments} path segments, e.g. /api/documents for PUT /api/documents/5. */
+    private String resourcePrefix(String path, int segments) {
+        StringBuilder prefix = new StringBuilder();
+        int found = 0;
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (found++ == segments) {
+                break;
+            }
+            prefix.append('/').append(segment);
+        }
+        return prefix.length() == 0 ? "/" : prefix.toString();
+    }
+
+    private String strongEtag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @lombok.Value
+    private static class CachedResponse {
+        String path;
+        String etag;
+        HttpHeaders headers;
+        byte[] body;
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        /** Ant-style GET paths that may be cached. */
+        private List<String> paths = new ArrayList<>();
+        /** Key entries on the authenticated subject, for responses that differ per user. */
+        private boolean perUser = true;
+        private Duration ttl = Duration.ofMinutes(5);
+        private long maxSizeBytes = 16 * 1024 * 1024;
+        private int maxEntryBytes = 512 * 1024;
+        /** Leading path segments shared by a write and the entries it invalidates. */
+        private int invalidationSegments = 2;
+    }
+}
@@ -0,0 +1,102 @@
+package com.complitracker.apigateway.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared registry of {@link InstanceStats}, fed by {@link LoadBalancerStatsFilter}
+ * and read by {@link LatencyAwareLoadBalancer}. Each instance's score, latency
+ * and in-flight count are published as gauges tagged by service and instance;
+ * both are dropped once the instance leaves its service's instance list.
+ */
+@Component
+public class InstanceLatencyTracker {
+
+    static final String SCORE_METRIC = "gateway.loadbalancer.instance.score";
+    static final String LATENCY_METRIC = "gateway.loadbalancer.instance.latency";
+    static final String IN_FLIGHT_METRIC = "gateway.loadbalancer.instance.in.flight";
+
+    private final MeterRegistry meterRegistry;
+    private final long decayNanos;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, List<Meter>> meters = new ConcurrentHashMap<>();
+    private final Map<String, List<ServiceInstance>> lastInstances = new ConcurrentHashMap<>();
+
+    public InstanceLatencyTracker(MeterRegistry meterRegistry, LoadBalancerProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.decayNanos = properties.getDecayTime().toNanos();
+    }
+
+    public InstanceStats statsFor(ServiceInstance instance) {
+        String serviceId = instance.getServiceId();
+        String address = address(instance);
+        return stats.computeIfAbsent(key(serviceId, address), key -> register(key, serviceId, address));
+    }
+
+    /**
+     * Forgets the stats and gauges of every instance of the service that is
+     * not in {@code instances}, the service's current instance list. Cheap
+     * when the list is the same one as last time, as it is while the
+     * supplier's cache holds it.
+     */
+    public void retainInstances(String serviceId, List<ServiceInstance> instances) {
+        if (lastInstances.put(key(serviceId, ""), instances) == instances) {
+            return;
+        }
+        Set<String> current = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            current.add(key(serviceId, address(instance)));
+        }
+        String prefix = key(serviceId, "");
+        stats.keySet().removeIf(key -> {
+            if (!key.startsWith(prefix) || current.contains(key)) {
+                return false;
+            }
+            List<Meter> removed = meters.remove(key);
+            if (removed != null) {
+                removed.forEach(meterRegistry::remove);
+            }
+            return true;
+        });
+    }
+
+    private InstanceStats register(String key, String serviceId, String address) {
+        InstanceStats instanceStats = new InstanceStats(decayNanos);
+        Tags tags = Tags.of("service", String.valueOf(serviceId), "instance", address);
+        meters.put(key, List.of(
+            Gauge.builder(SCORE_METRIC, instanceStats, InstanceStats::score)
+                .description("Load balancer cost score per instance, lower is preferred")
+                .tags(tags)
+                .register(meterRegistry),
+            Gauge.builder(LATENCY_METRIC, instanceStats, s -> s.latencyNanos() / 1_000_000.0)
+                .description("Peak-EWMA response time per instance in milliseconds")
+                .tags(tags)
+                .register(meterRegistry),
+            Gauge.builder(IN_FLIGHT_METRIC, instanceStats, InstanceStats::inFlight)
+                .description("Requests in flight per instance")
+                .tags(tags)
+                .register(meterRegistry)
+        ));
+        return instanceStats;
+    }
+
+    private static String key(String serviceId, String address) {
+        // Eureka reports service ids upper case, routes use them lower case
+        return String.valueOf(serviceId).toLowerCase(Locale.ROOT) + "/" + address;
+    }
+
+    private static String address(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
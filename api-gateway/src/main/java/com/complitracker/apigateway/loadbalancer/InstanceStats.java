@@ -0,0 +1,73 @@
+package com.complitracker.apigateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Load signals for one service instance: requests in flight and a peak-EWMA of
+ * response time. A sample slower than the current average replaces it
+ * outright, so a replica entering a GC pause or a slow call is penalised
+ * immediately; faster samples only pull the average down gradually.
+ * The average also decays towards zero while no samples arrive, so an
+ * instance that was slow once and then stopped receiving traffic is tried
+ * again after a few decay periods instead of being starved.
+ */
+public class InstanceStats {
+
+    private final long decayNanos;
+    private final LongSupplier clock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double ewmaNanos;
+    private long lastSampleNanos;
+
+    public InstanceStats(long decayNanos) {
+        this(decayNanos, System::nanoTime);
+    }
+
+    InstanceStats(long decayNanos, LongSupplier clock) {
+        this.decayNanos = decayNanos;
+        this.clock = clock;
+        this.lastSampleNanos = clock.getAsLong();
+    }
+
+    public void start() {
+        inFlight.incrementAndGet();
+    }
+
+    public synchronized void complete(long latencyNanos) {
+        inFlight.decrementAndGet();
+        long now = clock.getAsLong();
+        if (latencyNanos > ewmaNanos) {
+            ewmaNanos = latencyNanos;
+        } else {
+            double weight = weight(now);
+            ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+        }
+        lastSampleNanos = now;
+    }
+
+    /**
+     * Expected cost of sending one more request here; lower is better. The +1
+     * terms keep instances with no samples or nothing in flight comparable.
+     */
+    public double score() {
+        return (latencyNanos() + 1) * (inFlight.get() + 1);
+    }
+
+    /**
+     * The average as of now: the last one decayed by the time since the last
+     * sample.
+     */
+    public synchronized double latencyNanos() {
+        return ewmaNanos * weight(clock.getAsLong());
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private double weight(long now) {
+        return Math.exp(-(double) Math.max(0, now - lastSampleNanos) / decayNanos);
+    }
+}
@@ -0,0 +1,36 @@
+package com.complitracker.apigateway.loadbalancer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service load balancer configuration, registered for every client through
+ * {@link LoadBalancerConfig}. Deliberately not a {@code @Configuration} so that
+ * component scanning does not pull it into the main context.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(
+        value = "gateway.load-balancer.latency-aware",
+        havingValue = "true",
+        matchIfMissing = true
+    )
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(
+        Environment environment,
+        LoadBalancerClientFactory loadBalancerClientFactory,
+        InstanceLatencyTracker tracker
+    ) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(
+            serviceId,
+            loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+            tracker
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package com.complitracker.apigateway.loadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class LoadBalancerProperties {
+    /** Use the latency-aware balancer instead of Spring Cloud's round robin. */
+    private boolean latencyAware = true;
+    /** How quickly old latency samples stop counting; roughly the EWMA's memory. */
+    private Duration decayTime = Duration.ofSeconds(10);
+    /** Latency recorded for a failed or 5xx exchange, so failing instances are avoided. */
+    private Duration failurePenalty = Duration.ofSeconds(1);
+}
@@ -0,0 +1,65 @@
+package com.complitracker.apigateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feeds {@link InstanceLatencyTracker} from routed traffic. Runs right after the
+ * load balancer has picked an instance and records the outcome in doFinally,
+ * so cancelled requests release their in-flight slot too. Latency is taken when
+ * the response headers are written, so a long streamed body (a document
+ * download) does not make its instance look slow.
+ */
+@Component
+public class LoadBalancerStatsFilter implements GlobalFilter, Ordered {
+
+    private final InstanceLatencyTracker tracker;
+    private final long failurePenaltyNanos;
+
+    public LoadBalancerStatsFilter(InstanceLatencyTracker tracker, LoadBalancerProperties properties) {
+        this.tracker = tracker;
+        this.failurePenaltyNanos = properties.getFailurePenalty().toNanos();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> lbResponse =
+            exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        InstanceStats stats = tracker.statsFor(lbResponse.getServer());
+        stats.start();
+        long startNanos = System.nanoTime();
+        AtomicLong headersNanos = new AtomicLong();
+        exchange.getResponse().beforeCommit(() -> {
+            headersNanos.compareAndSet(0, System.nanoTime());
+            return Mono.empty();
+        });
+        return chain.filter(exchange)
+            .doFinally(signal -> {
+                long endNanos = headersNanos.get() != 0 ? headersNanos.get() : System.nanoTime();
+                long latencyNanos = endNanos - startNanos;
+                Integer status = exchange.getResponse().getRawStatusCode();
+                boolean failed = signal == SignalType.ON_ERROR || (status != null && status >= 500);
+                stats.complete(failed ? Math.max(latencyNanos, failurePenaltyNanos) : latencyNanos);
+            });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
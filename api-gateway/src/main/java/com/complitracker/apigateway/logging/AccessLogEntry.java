@@ -0,0 +1,22 @@
+package com.complitracker.apigateway.logging;
+
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * One completed exchange, captured on the event loop with only the values the
+ * writer needs. Formatting happens later on the writer thread.
+ */
+@Value
+public class AccessLogEntry {
+    long timestampMillis;
+    String method;
+    String path;
+    String routeId;
+    int status;
+    long latencyNanos;
+    String userId;
+    String remoteAddress;
+    Map<String, String> headers;
+}
@@ -0,0 +1,126 @@
+package com.complitracker.apigateway.logging;
+
+import com.complitracker.apigateway.security.JwtClaimsResolver;
+import io.jsonwebtoken.Claims;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records one structured access-log entry per sampled exchange. Runs ahead of
+ * the security chain so rejected requests are logged too; the route id and
+ * user are read from exchange attributes once the chain has completed.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter implements WebFilter {
+
+    private static final String REDACTED = "[REDACTED]";
+
+    private final AccessLogProperties properties;
+    private final AccessLogWriter writer;
+
+    public AccessLogFilter(AccessLogProperties properties, AccessLogWriter writer) {
+        this.properties = properties;
+        this.writer = writer;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        long startNanos = System.nanoTime();
+        return chain.filter(exchange)
+            .doFinally(signal -> record(exchange, startNanos, signal));
+    }
+
+    private void record(ServerWebExchange exchange, long startNanos, SignalType signal) {
+        long latencyNanos = System.nanoTime() - startNanos;
+        int status = resolveStatus(exchange, signal);
+        if (!isSampled(status)) {
+            return;
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Claims claims = exchange.getAttribute(JwtClaimsResolver.CLAIMS_ATTRIBUTE);
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+
+        writer.submit(new AccessLogEntry(
+            System.currentTimeMillis(),
+            request.getMethodValue(),
+            request.getPath().value(),
+            route != null ? route.getId() : "-",
+            status,
+            latencyNanos,
+            claims != null ? claims.getSubject() : "-",
+            remoteAddress != null ? remoteAddress.getHostString() : "-",
+            captureHeaders(request.getHeaders())
+        ));
+    }
+
+    private int resolveStatus(ServerWebExchange exchange, SignalType signal) {
+        Integer status = exchange.getResponse().getRawStatusCode();
+        if (status != null) {
+            return status;
+        }
+        // Client went away before a status was committed (nginx convention)
+        if (signal == SignalType.CANCEL) {
+            return 499;
+        }
+        return signal == SignalType.ON_ERROR ? 500 : 200;
+    }
+
+    private boolean isSampled(int status) {
+        if (properties.isAlwaysLogErrors() && status >= 400) {
+            return true;
+        }
+        double sampleRate = properties.getSampleRate();
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private Map<String, String> captureHeaders(HttpHeaders requestHeaders) {
+        if (properties.getHeaders().isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> captured = new LinkedHashMap<>();
+        for (String name : properties.getHeaders()) {
+            String value = requestHeaders.getFirst(name);
+            if (value != null) {
+                captured.put(name, isRedacted(name) ? redact(value) : value);
+            }
+        }
+        return captured;
+    }
+
+    private boolean isRedacted(String headerName) {
+        for (String redacted : properties.getRedactedHeaders()) {
+            if (redacted.equalsIgnoreCase(headerName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Keeps the auth scheme (e.g. "Bearer") so the log still shows how a client authenticated. */
+    private String redact(String value) {
+        int space = value.indexOf(' ');
+        return space > 0 ? value.substring(0, space + 1) + REDACTED : REDACTED;
+    }
+}
@@ -0,0 +1,26 @@
+package com.complitracker.apigateway.logging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.access-log")
+public class AccessLogProperties {
+    private boolean enabled = true;
+    /** Fraction of successful requests written to the access log, 0.0 to 1.0. */
+    private double sampleRate = 1.0;
+    /** Responses with status 400 and above bypass sampling. */
+    private boolean alwaysLogErrors = true;
+    /** Entries held between the event loop and the writer thread; rounded up to a power of two. */
+    private int bufferCapacity = 8192;
+    private int drainBatchSize = 256;
+    private long drainIntervalMs = 100;
+    private List<String> headers = new ArrayList<>(Arrays.asList("User-Agent", "X-Forwarded-For", "Authorization"));
+    private List<String> redactedHeaders = new ArrayList<>(Arrays.asList("Authorization", "Proxy-Authorization", "Cookie"));
+}
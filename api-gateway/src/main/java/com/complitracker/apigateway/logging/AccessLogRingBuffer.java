@@ -0,0 +1,91 @@
+package com.complitracker.apigateway.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free ring buffer for many producers and a single consumer.
+ * Each slot carries a sequence number that tells producers whether it is free
+ * and the consumer whether it has been published, so neither side ever blocks:
+ * {@link #offer} fails fast when the ring is full and {@link #poll} returns
+ * null when it is empty.
+ */
+public class AccessLogRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private volatile long consumerIndex;
+
+    public AccessLogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publishes the element, or returns false without waiting if the consumer
+     * has fallen a full ring behind.
+     */
+    public boolean offer(E element) {
+        long position = producerIndex.get();
+        int index;
+        while (true) {
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (producerIndex.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = producerIndex.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = producerIndex.get();
+            }
+        }
+        slots.lazySet(index, element);
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /** Must only be called from the single consumer thread. */
+    public E poll() {
+        long position = consumerIndex;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = slots.get(index);
+        slots.lazySet(index, null);
+        sequences.set(index, position + mask + 1);
+        consumerIndex = position + 1;
+        return element;
+    }
+
+    /** Must only be called from the single consumer thread. */
+    public int drain(Consumer<E> consumer, int limit) {
+        int drained = 0;
+        E element;
+        while (drained < limit && (element = poll()) != null) {
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,103 @@
+package com.complitracker.apigateway.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Owns the access-log ring buffer. Event-loop threads only {@link #submit}
+ * entries; a single background thread drains them and does the formatting and
+ * logger I/O. When the buffer is full, entries are dropped and counted rather
+ * than holding up the request.
+ */
+@Component
+@Slf4j
+public class AccessLogWriter {
+
+    private static final Logger ACCESS_LOG =
+        LoggerFactory.getLogger("com.complitracker.apigateway.accesslog");
+
+    private final AccessLogProperties properties;
+    private final AccessLogRingBuffer<AccessLogEntry> buffer;
+    private final Counter droppedEntries;
+
+    private volatile boolean running;
+    private Thread drainThread;
+
+    public AccessLogWriter(AccessLogProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buffer = new AccessLogRingBuffer<>(properties.getBufferCapacity());
+        this.droppedEntries = Counter.builder("gateway.access.log.dropped")
+            .description("Access log entries dropped because the buffer was full")
+            .register(meterRegistry);
+        Gauge.builder("gateway.access.log.buffered", buffer, AccessLogRingBuffer::size)
+            .description("Access log entries waiting for the writer thread")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        drainThread = new Thread(this::drainLoop, "access-log-writer");
+        drainThread.setDaemon(true);
+        drainThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(drainThread);
+        drainThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public void submit(AccessLogEntry entry) {
+        if (!buffer.offer(entry)) {
+            droppedEntries.increment();
+        }
+    }
+
+    private void drainLoop() {
+        long parkNanos = TimeUnit.MILLISECONDS.toNanos(properties.getDrainIntervalMs());
+        while (running) {
+            try {
+                if (buffer.drain(this::write, properties.getDrainBatchSize()) == 0) {
+                    LockSupport.parkNanos(this, parkNanos);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to write access log entry: {}", e.getMessage());
+            }
+        }
+        // Flush whatever was accepted before shutdown
+        buffer.drain(this::write, Integer.MAX_VALUE);
+    }
+
+    private void write(AccessLogEntry entry) {
+        if (!ACCESS_LOG.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder line = new StringBuilder(256)
+            .append("ts=").append(Instant.ofEpochMilli(entry.getTimestampMillis()))
+            .append(" method=").append(entry.getMethod())
+            .append(" path=").append(entry.getPath())
+            .append(" route=").append(entry.getRouteId())
+            .append(" status=").append(entry.getStatus())
+            .append(" latencyMs=").append(TimeUnit.NANOSECONDS.toMicros(entry.getLatencyNanos()) / 1000.0)
+            .append(" user=").append(entry.getUserId())
+            .append(" remote=").append(entry.getRemoteAddress());
+        for (Map.Entry<String, String> header : entry.getHeaders().entrySet()) {
+            line.append(' ').append(header.getKey()).append("=\"").append(header.getValue()).append('"');
+        }
+        ACCESS_LOG.info(line.toString());
+    }
+}
@@ -0,0 +1,112 @@
+package com.complitracker.apigateway.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records latency per route, response status and downstream instance, and
+ * tracks how many requests each route currently has in flight. Gauges for
+ * the configured routes are registered up front so an idle route reports 0
+ * instead of being absent.
+ */
+@Component
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    static final String LATENCY_METRIC = "gateway.route.latency";
+    static final String IN_FLIGHT_METRIC = "gateway.route.in.flight";
+
+    private final MeterRegistry meterRegistry;
+    private final RouteMetricsProperties properties;
+    private final Duration[] sloBuckets;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public RouteMetricsFilter(
+        MeterRegistry meterRegistry,
+        RouteMetricsProperties properties,
+        GatewayProperties gatewayProperties
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.sloBuckets = properties.getSloBuckets().toArray(new Duration[0]);
+        for (RouteDefinition route : gatewayProperties.getRoutes()) {
+            inFlightCounter(route.getId());
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+
+        return Mono.defer(() -> {
+            AtomicInteger routeInFlight = inFlightCounter(route.getId());
+            routeInFlight.incrementAndGet();
+            long startNanos = System.nanoTime();
+            return chain.filter(exchange)
+                .doFinally(signal -> {
+                    routeInFlight.decrementAndGet();
+                    recordLatency(exchange, route.getId(), System.nanoTime() - startNanos);
+                });
+        });
+    }
+
+    private void recordLatency(ServerWebExchange exchange, String routeId, long latencyNanos) {
+        Integer status = exchange.getResponse().getRawStatusCode();
+        Timer.builder(LATENCY_METRIC)
+            .description("Gateway latency per route, status and downstream instance")
+            .tag("route", routeId)
+            .tag("status", status != null ? String.valueOf(status) : "NONE")
+            .tag("instance", downstreamInstance(exchange))
+            .serviceLevelObjectives(sloBuckets)
+            .publishPercentileHistogram(properties.isPercentileHistogram())
+            .register(meterRegistry)
+            .record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Host and port the load balancer picked, or NONE if the request never got that far. */
+    private String downstreamInstance(ServerWebExchange exchange) {
+        URI requestUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (requestUrl == null || requestUrl.getHost() == null || "lb".equals(requestUrl.getScheme())) {
+            return "NONE";
+        }
+        return requestUrl.getPort() > 0
+            ? requestUrl.getHost() + ":" + requestUrl.getPort()
+            : requestUrl.getHost();
+    }
+
+    private AtomicInteger inFlightCounter(String routeId) {
+        return inFlight.computeIfAbsent(routeId, id -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder(IN_FLIGHT_METRIC, counter, AtomicInteger::get)
+                .description("Requests currently in flight per gateway route")
+                .tag("route", id)
+                .register(meterRegistry);
+            return counter;
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
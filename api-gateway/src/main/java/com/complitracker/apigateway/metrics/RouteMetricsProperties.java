@@ -0,0 +1,29 @@
+package com.complitracker.apigateway.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.metrics")
+public class RouteMetricsProperties {
+    private boolean enabled = true;
+    /** Latency histogram buckets, published as cumulative le="..." series for SLO queries. */
+    private List<Duration> sloBuckets = new ArrayList<>(Arrays.asList(
+        Duration.ofMillis(50),
+        Duration.ofMillis(100),
+        Duration.ofMillis(250),
+        Duration.ofMillis(500),
+        Duration.ofSeconds(1),
+        Duration.ofMillis(2500),
+        Duration.ofSeconds(5)
+    ));
+    /** Also publish Micrometer's default percentile histogram buckets. */
+    private boolean percentileHistogram = false;
+}
@@ -0,0 +1,86 @@
+package com.complitracker.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Local token buckets. Each bucket's state is a single immutable snapshot
+ * swapped with compare-and-set, so consuming a token never takes a lock.
+ * Idle buckets are evicted (an evicted bucket comes back full, which is what
+ * it would have refilled to anyway) and the total is capped, so random keys
+ * cannot grow the map without bound.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, TokenBucket> buckets;
+
+    public InMemoryRateLimitStore(long maxBuckets, Duration idleTimeout) {
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxBuckets)
+            .expireAfterAccess(idleTimeout)
+            .build();
+    }
+
+    @Override
+    public Mono<RateLimitDecision> tryConsume(String key, long capacity, double refillPerSecond) {
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(capacity));
+        return Mono.just(bucket.tryConsume(capacity, refillPerSecond / 1_000_000_000.0, System.nanoTime()));
+    }
+
+    @Override
+    public Mono<Void> refund(String key, long capacity) {
+        TokenBucket bucket = buckets.getIfPresent(key);
+        if (bucket != null) {
+            bucket.refund(capacity);
+        }
+        return Mono.empty();
+    }
+
+    static class TokenBucket {
+
+        private final AtomicReference<State> state;
+
+        TokenBucket(long capacity) {
+            this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+        }
+
+        RateLimitDecision tryConsume(long capacity, double refillPerNano, long nowNanos) {
+            while (true) {
+                State current = state.get();
+                long elapsed = Math.max(0, nowNanos - current.updatedNanos);
+                double tokens = Math.min(capacity, current.tokens + elapsed * refillPerNano);
+                if (tokens < 1) {
+                    long waitNanos = (long) Math.ceil((1 - tokens) / refillPerNano);
+                    return RateLimitDecision.denied(Duration.ofNanos(waitNanos));
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, nowNanos))) {
+                    return RateLimitDecision.allowed((long) (tokens - 1));
+                }
+            }
+        }
+
+        void refund(long capacity) {
+            while (true) {
+                State current = state.get();
+                State refunded = new State(Math.min(capacity, current.tokens + 1), current.updatedNanos);
+                if (state.compareAndSet(current, refunded)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static class State {
+        private final double tokens;
+        private final long updatedNanos;
+
+        State(double tokens, long updatedNanos) {
+            this.tokens = tokens;
+            this.updatedNanos = updatedNanos;
+        }
+    }
+}
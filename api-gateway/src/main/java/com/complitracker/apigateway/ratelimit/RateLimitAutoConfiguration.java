@@ -0,0 +1,26 @@
+package com.complitracker.apigateway.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+/**
+ * Default in-memory store. Registered through AutoConfiguration.imports rather
+ * than component scanning, so it is evaluated after all application beans and
+ * the missing-bean condition reliably backs off when a shared store exists.
+ */
+@AutoConfiguration
+public class RateLimitAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(RateLimitStore.class)
+    public RateLimitStore inMemoryRateLimitStore(
+        @Value("${gateway.rate-limit.max-buckets:100000}") long maxBuckets,
+        @Value("${gateway.rate-limit.idle-timeout:10m}") Duration idleTimeout
+    ) {
+        return new InMemoryRateLimitStore(maxBuckets, idleTimeout);
+    }
+}
@@ -0,0 +1,21 @@
+package com.complitracker.apigateway.ratelimit;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+public class RateLimitDecision {
+    boolean allowed;
+    long remainingTokens;
+    /** Time until a token is available again; zero when allowed. */
+    Duration retryAfter;
+
+    public static RateLimitDecision allowed(long remainingTokens) {
+        return new RateLimitDecision(true, remainingTokens, Duration.ZERO);
+    }
+
+    public static RateLimitDecision denied(Duration retryAfter) {
+        return new RateLimitDecision(false, 0, retryAfter);
+    }
+}
@@ -0,0 +1,28 @@
+package com.complitracker.apigateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Backend holding token-bucket state. The in-memory store keeps buckets local
+ * to one gateway instance; multi-replica deployments can provide a shared
+ * implementation (e.g. backed by Redis) as a bean of this type, which replaces
+ * the default.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes one token from the bucket identified by key, creating it full if it
+     * does not exist yet.
+     *
+     * @param capacity        maximum tokens the bucket holds (burst size)
+     * @param refillPerSecond tokens added per second
+     */
+    Mono<RateLimitDecision> tryConsume(String key, long capacity, double refillPerSecond);
+
+    /**
+     * Returns a token taken by {@link #tryConsume} for a request that a later
+     * limit rejected, so that rejection does not also cost the caller. The
+     * bucket never grows past its capacity.
+     */
+    Mono<Void> refund(String key, long capacity);
+}
@@ -1,9 +1,6 @@
 package com.complitracker.apigateway.security;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -13,6 +10,7 @@ import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,61 +19,46 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class JwtAuthenticationFilter implements WebFilter {
 
-    private final JwtConfig jwtConfig;
+    private final JwtClaimsResolver claimsResolver;
 
-    public JwtAuthenticationFilter(JwtConfig jwtConfig) {
-        this.jwtConfig = jwtConfig;
+    public JwtAuthenticationFilter(JwtClaimsResolver claimsResolver) {
+        this.claimsResolver = claimsResolver;
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-        String token = extractToken(exchange);
-        if (token != null && validateToken(token)) {
-            Authentication authentication = getAuthentication(token);
+        String token = JwtClaimsResolver.extractToken(exchange);
+        Claims claims = token != null ? resolveClaims(exchange, token) : null;
+        if (claims != null) {
+            Authentication authentication = getAuthentication(claims);
             return chain.filter(exchange)
                     .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
         }
         return chain.filter(exchange);
     }
 
-    private String extractToken(ServerWebExchange exchange) {
-        String bearerToken = exchange.getRequest()
-                .getHeaders()
-                .getFirst(HttpHeaders.AUTHORIZATION);
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-        return null;
-    }
-
-    private boolean validateToken(String token) {
+    private Claims resolveClaims(ServerWebExchange exchange, String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(jwtConfig.getSecretKey())
-                .build()
-                .parseClaimsJws(token);
+            Claims claims = claimsResolver.resolve(exchange, token);
             log.debug("JWT token validation successful.");
-            return true;
+            return claims;
         } catch (Exception e) {
             log.error("JWT token validation failed: {}", e.getMessage());
             log.trace("JWT validation exception details:", e);
-            return false;
+            return null;
         }
     }
 
-    private Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(jwtConfig.getSecretKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
+    private Authentication getAuthentication(Claims claims) {
         String username = claims.getSubject();
         List<String> roles = claims.get("roles", List.class);
+        if (roles == null) {
+            roles = Collections.emptyList();
+        }
         List<SimpleGrantedAuthority> authorities = roles.stream()
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
 
         return new UsernamePasswordAuthenticationToken(username, null, authorities);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.complitracker.apigateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.UnsupportedJwtException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Single place where a request's bearer token is turned into verified claims.
+ * The first caller verifies the token and stores the claims on the exchange;
+ * later stages of the same request (the security context, the gateway
+ * {@link JwtTokenFilter}) read them back instead of parsing the token again.
+ * Refresh tokens are signed with the same key but are only good for the auth
+ * service's {@code /refreshtoken}, so they are rejected here.
+ */
+@Component
+public class JwtClaimsResolver {
+
+    public static final String CLAIMS_ATTRIBUTE =
+        JwtClaimsResolver.class.getName() + ".claims";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String TOKEN_TYPE_CLAIM = "token_type";
+    private static final String REFRESH_TOKEN = "refresh";
+
+    private final VerifiedClaimsCache verifiedClaimsCache;
+
+    public JwtClaimsResolver(VerifiedClaimsCache verifiedClaimsCache) {
+        this.verifiedClaimsCache = verifiedClaimsCache;
+    }
+
+    /**
+     * Returns the bearer token from the Authorization header, or null when the
+     * header is missing or uses another scheme.
+     */
+    public static String extractToken(ServerWebExchange exchange) {
+        String bearerToken = exchange.getRequest()
+            .getHeaders()
+            .getFirst(HttpHeaders.AUTHORIZATION);
+        if (bearerToken != null && bearerToken.startsWith(BEARER_PREFIX)) {
+            return bearerToken.substring(BEARER_PREFIX.length());
+        }
+        return null;
+    }
+
+    /**
+     * Returns the claims already resolved for this exchange, verifying the
+     * token only on first use. Verification failures propagate as the usual
+     * jjwt exceptions and leave the exchange untouched; a refresh token fails
+     * with {@link UnsupportedJwtException}.
+     */
+    public Claims resolve(ServerWebExchange exchange, String token) {
+        Claims claims = exchange.getAttribute(CLAIMS_ATTRIBUTE);
+        if (claims != null) {
+            return claims;
+        }
+
+        claims = verifiedClaimsCache.verify(token);
+        if (isRefreshToken(claims)) {
+            throw new UnsupportedJwtException("Refresh tokens cannot authenticate requests");
+        }
+        exchange.getAttributes().put(CLAIMS_ATTRIBUTE, claims);
+        return claims;
+    }
+
+    // refresh tokens issued before the token type claim have a jti but no roles
+    private static boolean isRefreshToken(Claims claims) {
+        String type = claims.get(TOKEN_TYPE_CLAIM, String.class);
+        if (type != null) {
+            return REFRESH_TOKEN.equals(type);
+        }
+        return claims.getId() != null && claims.get("roles") == null;
+    }
+}
@@ -1,10 +1,7 @@
 package com.complitracker.apigateway.security;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpStatus;
@@ -22,16 +19,11 @@ import io.jsonwebtoken.UnsupportedJwtException;
 public class JwtTokenFilter
     extends AbstractGatewayFilterFactory<JwtTokenFilter.Config> {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final JwtClaimsResolver claimsResolver;
 
-    public JwtTokenFilter() {
+    public JwtTokenFilter(JwtClaimsResolver claimsResolver) {
         super(Config.class);
-    }
-
-    private byte[] getSigningKey() {
-        // This is the original, incorrect version that Base64 encodes the key
-        return java.util.Base64.getEncoder().encode(jwtSecret.getBytes());
+        this.claimsResolver = claimsResolver;
     }
 
     @Override
@@ -40,12 +32,7 @@ public class JwtTokenFilter
             ServerHttpRequest request = exchange.getRequest();
             String path = request.getPath().value();
 
-            log.info("Processing request: {} {}", request.getMethod(), path);
-
-            // Log all headers for debugging
-            request.getHeaders().forEach((name, values) -> {
-                values.forEach(value -> log.info("Header: {} = {}", name, value));
-            });
+            log.debug("Processing request: {} {}", request.getMethod(), path);
 
             // Skip authentication for public endpoints
             if (
@@ -65,10 +52,8 @@ public class JwtTokenFilter
                 );
             }
 
-            String token = request.getHeaders().getFirst("Authorization");
-            if (token != null && token.startsWith("Bearer ")) {
-                token = token.substring(7);
-            } else {
+            String token = JwtClaimsResolver.extractToken(exchange);
+            if (token == null) {
                 return onError(
                     exchange,
                     "Invalid Authorization format",
@@ -77,18 +62,12 @@ public class JwtTokenFilter
             }
 
             try {
-                log.info("Attempting to validate token: {}", token);
-                byte[] signingKey = getSigningKey();
-                log.info("Using signing key (length): {}", signingKey.length);
-                log.info("Validating JWT token...");
-                // Verify the token is valid using the same method as auth service
-                Claims claims = Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .parseClaimsJws(token)
-                    .getBody();
+                log.debug("Validating JWT token...");
+                // Reuse the claims the security chain already resolved for
+                // this exchange; only verify here if it has not run
+                Claims claims = claimsResolver.resolve(exchange, token);
 
-                // Log successful validation - for debugging
-                log.info(
+                log.debug(
                     "Token validated successfully for user: {}",
                     claims.getSubject()
                 );
@@ -104,22 +83,22 @@ public class JwtTokenFilter
                     exchange.mutate().request(modifiedRequest).build()
                 );
             } catch (SignatureException e) {
-                log.error("Invalid JWT signature for token: {}. Error: {}", token, e.getMessage(), e);
+                log.error("Invalid JWT signature: {}", e.getMessage());
                 return onError(exchange, "Invalid JWT signature", HttpStatus.UNAUTHORIZED);
             } catch (MalformedJwtException e) {
-                log.error("Invalid JWT token format: {}. Error: {}", token, e.getMessage(), e);
+                log.error("Invalid JWT token format: {}", e.getMessage());
                 return onError(exchange, "Invalid JWT token", HttpStatus.UNAUTHORIZED);
             } catch (ExpiredJwtException e) {
-                log.error("JWT token is expired: {}. Error: {}", token, e.getMessage(), e);
+                log.error("JWT token is expired: {}", e.getMessage());
                 return onError(exchange, "JWT token is expired", HttpStatus.UNAUTHORIZED);
             } catch (UnsupportedJwtException e) {
-                log.error("JWT token is unsupported: {}. Error: {}", token, e.getMessage(), e);
+                log.error("JWT token is unsupported: {}", e.getMessage());
                 return onError(exchange, "JWT token is unsupported", HttpStatus.UNAUTHORIZED);
             } catch (IllegalArgumentException e) {
-                log.error("JWT claims string is empty for token: {}. Error: {}", token, e.getMessage(), e);
+                log.error("JWT claims string is empty: {}", e.getMessage());
                 return onError(exchange, "JWT claims string is empty", HttpStatus.UNAUTHORIZED);
             } catch (Exception e) {
-                log.error("General error validating token: {}. Error: {}", token, e.getMessage(), e);
+                log.error("General error validating token: {}", e.getMessage());
                 return onError(exchange, "Invalid token: " + e.getMessage(), HttpStatus.UNAUTHORIZED);
             }
         };
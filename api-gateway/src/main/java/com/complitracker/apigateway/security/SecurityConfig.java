@@ -21,7 +21,7 @@ import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 public class SecurityConfig {
 
     @Autowired
-    private JwtConfig jwtConfig;
+    private JwtClaimsResolver jwtClaimsResolver;
 
     @Bean
     public SecurityWebFilterChain springSecurityFilterChain(
@@ -46,7 +46,7 @@ public class SecurityConfig {
             .authenticated()
             .and()
             .addFilterAt(
-                new JwtAuthenticationFilter(jwtConfig),
+                new JwtAuthenticationFilter(jwtClaimsResolver),
                 SecurityWebFiltersOrder.AUTHENTICATION
             )
             .securityContextRepository(
@@ -77,7 +77,7 @@ public class SecurityConfig {
                 "Accept"
             )
         );
-        corsConfig.setExposedHeaders(Arrays.asList("Authorization"));
+        corsConfig.setExposedHeaders(Arrays.asList("Authorization", "X-Next-Cursor"));
         corsConfig.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source =
@@ -0,0 +1,120 @@
+package com.complitracker.apigateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the claims of bearer tokens whose signature has already been verified,
+ * so repeated requests with the same token skip the HMAC check. Entries are keyed
+ * by a SHA-256 digest of the token (the raw token is never held as a key) and
+ * expire at the token's own {@code exp} claim. A max size of 0 disables caching
+ * and verifies every token.
+ */
+@Component
+@Slf4j
+public class VerifiedClaimsCache {
+
+    public static final String CACHE_NAME = "jwtVerifiedClaims";
+
+    private final JwtParser jwtParser;
+    private final Cache<String, Claims> cache;
+
+    public VerifiedClaimsCache(
+        JwtConfig jwtConfig,
+        MeterRegistry meterRegistry,
+        @Value("${jwt.claims-cache.max-size:10000}") long maxSize
+    ) {
+        this.jwtParser = Jwts.parserBuilder()
+            .setSigningKey(jwtConfig.getSecretKey())
+            .build();
+        if (maxSize > 0) {
+            this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Returns the verified claims for the given token, parsing and checking the
+     * signature only when no live cache entry exists. Invalid tokens are never
+     * cached, so the usual jjwt exceptions surface on every attempt.
+     */
+    public Claims verify(String token) {
+        if (cache == null) {
+            return jwtParser.parseClaimsJws(token).getBody();
+        }
+
+        String key = digest(token);
+        Claims claims = cache.getIfPresent(key);
+        if (claims != null) {
+            return claims;
+        }
+
+        claims = jwtParser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            cache.put(key, claims);
+        }
+        return claims;
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(
+            String key,
+            Claims claims,
+            long currentTime,
+            long currentDuration
+        ) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(
+            String key,
+            Claims claims,
+            long currentTime,
+            long currentDuration
+        ) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.complitracker.apigateway.service;
+
+import com.complitracker.apigateway.config.BatchProperties;
+import com.complitracker.apigateway.dto.BatchDTO.BatchRequest;
+import com.complitracker.apigateway.dto.BatchDTO.BatchResponse;
+import com.complitracker.apigateway.dto.BatchDTO.SubRequest;
+import com.complitracker.apigateway.dto.BatchDTO.SubResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a batch of API calls in one gateway round trip. Each sub-request is
+ * sent back through this gateway over loopback with the caller's credentials,
+ * up to a fixed number at a time, so it is routed, authenticated,
+ * rate-limited, concurrency-limited and cached exactly as if the client had
+ * made it directly; a write in a batch invalidates cached responses like any
+ * other write.
+ *
+ * Sub-requests may depend on others, either only for ordering or to use fields
+ * of an earlier response in their path. Failures stay per sub-request: a
+ * failed dependency marks its dependents 424 and leaves the rest of the batch
+ * untouched.
+ */
+@Service
+@Slf4j
+public class BatchService {
+
+    /** Marks loopback sub-requests, so the batch endpoint can refuse to nest. */
+    public static final String SUB_REQUEST_HEADER = "X-Batch-Sub-Request";
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^.}]+)((?:\\.[^.}]+)*)}");
+    private static final Set<String> RESERVED_HEADERS = new HashSet<>(
+        List.of("authorization", "x-user-id", "host", "content-length", SUB_REQUEST_HEADER.toLowerCase())
+    );
+
+    private final WebClient webClient;
+    private final BatchProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public BatchService(
+        WebClient.Builder webClientBuilder,
+        BatchProperties properties,
+        ObjectMapper objectMapper
+    ) {
+        this.webClient = webClientBuilder.build();
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    public Mono<BatchResponse> execute(
+        ServerWebExchange exchange,
+        String authorization,
+        BatchRequest batch
+    ) {
+        List<SubRequest> requests;
+        try {
+            requests = executionOrder(batch.getRequests());
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+        }
+
+        // Dependencies always come earlier in execution order, so a request
+        // waiting on one never holds a slot its dependency still needs.
+        Map<String, Mono<SubResponse>> results = new HashMap<>();
+        for (SubRequest request : requests) {
+            results.put(
+                request.getId(),
+                run(exchange, request, results, authorization).cache()
+            );
+        }
+
+        return Flux.fromIterable(requests)
+            .flatMap(request -> results.get(request.getId()), properties.getConcurrency())
+            .collectMap(SubResponse::getId)
+            .map(byId -> new BatchResponse(
+                batch.getRequests().stream().map(request -> byId.get(request.getId())).collect(Collectors.toList())
+            ));
+    }
+
+    private Mono<SubResponse> run(
+        ServerWebExchange exchange,
+        SubRequest request,
+        Map<String, Mono<SubResponse>> results,
+        String authorization
+    ) {
+        return Flux.fromIterable(request.getDependsOn())
+            .concatMap(results::get)
+            .collectMap(SubResponse::getId)
+            .flatMap(dependencies -> {
+                for (SubResponse dependency : dependencies.values()) {
+                    if (!dependency.isSuccessful()) {
+                        return Mono.just(SubResponse.error(
+                            request.getId(),
+                            HttpStatus.FAILED_DEPENDENCY.value(),
+                            "dependency " + dependency.getId() + " failed"
+                        ));
+                    }
+                }
+
+                URI uri;
+                HttpMethod method = HttpMethod.resolve(request.getMethod().toUpperCase());
+                try {
+                    String path = resolvePlaceholders(request.getPath(), dependencies);
+                    if (!isAllowedPath(path)) {
+                        throw new IllegalArgumentException("Request " + request.getId() + " has an invalid path");
+                    }
+                    uri = loopbackUri(exchange, path);
+                } catch (IllegalArgumentException e) {
+                    return Mono.just(SubResponse.error(request.getId(), HttpStatus.BAD_REQUEST.value(), e.getMessage()));
+                }
+
+                return call(method, uri, request, authorization);
+            });
+    }
+
+    private Mono<SubResponse> call(
+        HttpMethod method,
+        URI target,
+        SubRequest request,
+        String authorization
+    ) {
+        WebClient.RequestBodySpec spec = webClient.method(method)
+            .uri(target)
+            .headers(headers -> {
+                request.getHeaders().forEach((name, value) -> {
+                    if (!RESERVED_HEADERS.contains(name.toLowerCase())) {
+                        headers.set(name, value);
+                    }
+                });
+                if (authorization != null) {
+                    headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                }
+                headers.set(SUB_REQUEST_HEADER, request.getId());
+            });
+        WebClient.RequestHeadersSpec<?> withBody = request.getBody() != null
+            ? spec.bodyValue(request.getBody())
+            : spec;
+
+        return withBody
+            .exchangeToMono(response -> response.bodyToMono(String.class)
+                .map(this::parseBody)
+                .map(body -> new SubResponse(request.getId(), response.rawStatusCode(), body, null))
+                .defaultIfEmpty(new SubResponse(request.getId(), response.rawStatusCode(), null, null)))
+            .timeout(properties.getTimeout())
+            .onErrorResume(e -> {
+                boolean timedOut = e instanceof TimeoutException;
+                log.warn("Batch sub-request {} to {} failed: {}", request.getId(), target.getRawPath(),
+                    timedOut ? "timeout" : e.getMessage());
+                return Mono.just(timedOut
+                    ? SubResponse.error(request.getId(), HttpStatus.GATEWAY_TIMEOUT.value(), "timeout")
+                    : SubResponse.error(request.getId(), HttpStatus.BAD_GATEWAY.value(), e.getMessage()));
+            });
+    }
+
+    /**
+     * Validates the batch and orders it so every request follows its
+     * dependencies, keeping the submitted order otherwise.
+     */
+    private List<SubRequest> executionOrder(List<SubRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch contains no requests");
+        }
+        if (requests.size() > properties.getMaxRequests()) {
+            throw new IllegalArgumentException("Batch exceeds " + properties.getMaxRequests() + " requests");
+        }
+
+        Map<String, SubRequest> byId = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            SubRequest request = requests.get(i);
+            if (request.getId() == null || request.getId().isBlank()) {
+                request.setId(String.valueOf(i));
+            }
+            if (request.getPath() == null || !isAllowedPath(request.getPath())) {
+                throw new IllegalArgumentException("Request " + request.getId() + " has an invalid path");
+            }
+            if (request.getMethod() == null || HttpMethod.resolve(request.getMethod().toUpperCase()) == null) {
+                throw new IllegalArgumentException("Request " + request.getId() + " has an invalid method");
+            }
+            if (request.getDependsOn() == null) {
+                request.setDependsOn(new ArrayList<>());
+            }
+            if (request.getHeaders() == null) {
+                request.setHeaders(new HashMap<>());
+            }
+            if (byId.put(request.getId(), request) != null) {
+                throw new IllegalArgumentException("Duplicate request id " + request.getId());
+            }
+        }
+
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (SubRequest request : byId.values()) {
+            for (String dependency : request.getDependsOn()) {
+                if (!byId.containsKey(dependency)) {
+                    throw new IllegalArgumentException(
+                        "Request " + request.getId() + " depends on unknown request " + dependency);
+                }
+                dependents.computeIfAbsent(dependency, id -> new ArrayList<>()).add(request.getId());
+            }
+            pending.put(request.getId(), new HashSet<>(request.getDependsOn()).size());
+        }
+
+        Deque<String> ready = new ArrayDeque<>();
+        byId.keySet().stream().filter(id -> pending.get(id) == 0).forEach(ready::add);
+        List<SubRequest> ordered = new ArrayList<>(byId.size());
+        while (!ready.isEmpty()) {
+            String id = ready.poll();
+            ordered.add(byId.get(id));
+            for (String dependent : dependents.getOrDefault(id, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (ordered.size() != byId.size()) {
+            throw new IllegalArgumentException("Batch dependencies contain a cycle");
+        }
+        return ordered;
+    }
+
+    /**
+     * Checked before and after placeholders are filled in. The batch endpoint
+     * also rejects anything carrying {@link #SUB_REQUEST_HEADER}, which covers
+     * paths that only reach it after routing.
+     */
+    private boolean isAllowedPath(String path) {
+        return path.startsWith("/api/") && !path.startsWith("/api/batch");
+    }
+
+    private String resolvePlaceholders(String path, Map<String, SubResponse> dependencies) {
+        Matcher matcher = PLACEHOLDER.matcher(path);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            SubResponse source = dependencies.get(matcher.group(1));
+            if (source == null) {
+                throw new IllegalArgumentException(
+                    "Placeholder references " + matcher.group(1) + ", which is not a dependency");
+            }
+            JsonNode value = source.getBody();
+            for (String field : matcher.group(2).split("\\.")) {
+                if (!field.isEmpty() && value != null) {
+                    value = value.get(field);
+                }
+            }
+            if (value == null || value.isNull() || value.isContainerNode()) {
+                throw new IllegalArgumentException("Placeholder " + matcher.group() + " did not resolve to a value");
+            }
+            String encoded = UriUtils.encodePathSegment(value.asText(), StandardCharsets.UTF_8);
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(encoded));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    /**
+     * The sub-request's path on this gateway instance: the loopback address
+     * and the local port the batch itself arrived on, so the call never
+     * leaves the host or lands on another replica.
+     */
+    private URI loopbackUri(ServerWebExchange exchange, String path) {
+        InetSocketAddress local = exchange.getRequest().getLocalAddress();
+        if (local == null) {
+            throw new IllegalArgumentException("Local address of the batch request is unknown");
+        }
+        int queryStart = path.indexOf('?');
+        return UriComponentsBuilder.newInstance()
+            .scheme(exchange.getRequest().getSslInfo() != null ? "https" : "http")
+            .host(InetAddress.getLoopbackAddress().getHostAddress())
+            .port(local.getPort())
+            .path(queryStart < 0 ? path : path.substring(0, queryStart))
+            .query(queryStart < 0 ? null : path.substring(queryStart + 1))
+            .build(true)
+            .toUri();
+    }
+
+    private JsonNode parseBody(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            return TextNode.valueOf(body);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.complitracker.apigateway.service;
+
+import com.complitracker.apigateway.config.DashboardProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Builds the dashboard in one gateway round trip. All parts are requested
+ * concurrently, each under its own timeout. A part that fails or times out is
+ * reported under "errors" instead of failing the response, so the page costs
+ * as much as its slowest healthy dependency.
+ */
+@Service
+@Slf4j
+public class DashboardService {
+
+    private final WebClient webClient;
+    private final DashboardProperties properties;
+
+    public DashboardService(WebClient loadBalancedWebClient, DashboardProperties properties) {
+        this.webClient = loadBalancedWebClient;
+        this.properties = properties;
+    }
+
+    public Mono<Map<String, Object>> getDashboard(
+        String userId,
+        String authorization,
+        int deadlineDays,
+        int notificationLimit
+    ) {
+        List<Mono<DashboardPart>> parts = Arrays.asList(
+            part("stats", properties.getCoreServiceUri() + "/api/compliance/stats", userId, authorization),
+            part(
+                "deadlines",
+                properties.getCoreServiceUri() + "/api/compliance/deadlines?days=" + deadlineDays,
+                userId,
+                authorization
+            ),
+            part("riskScore", properties.getCoreServiceUri() + "/api/risk-analysis/organization", userId, authorization),
+            part(
+                "notifications",
+                properties.getNotificationServiceUri() + "/api/notifications?limit=" + notificationLimit,
+                userId,
+                authorization
+            )
+        );
+
+        return Mono.zip(parts, this::combine);
+    }
+
+    private Mono<DashboardPart> part(String name, String uri, String userId, String authorization) {
+        return webClient.get()
+            .uri(uri)
+            .header("X-User-Id", userId)
+            .headers(headers -> {
+                if (authorization != null) {
+                    headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                }
+            })
+            .retrieve()
+            .bodyToMono(Object.class)
+            .timeout(properties.timeoutFor(name))
+            .map(body -> new DashboardPart(name, body, null))
+            .defaultIfEmpty(new DashboardPart(name, null, null))
+            .onErrorResume(e -> {
+                String error = e instanceof TimeoutException ? "timeout" : e.getMessage();
+                log.warn("Dashboard part {} unavailable: {}", name, error);
+                return Mono.just(new DashboardPart(name, null, error));
+            });
+    }
+
+    private Map<String, Object> combine(Object[] results) {
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (Object result : results) {
+            DashboardPart part = (DashboardPart) result;
+            dashboard.put(part.name, part.body);
+            if (part.error != null) {
+                errors.put(part.name, part.error);
+            }
+        }
+        dashboard.put("partial", !errors.isEmpty());
+        dashboard.put("errors", errors);
+        return dashboard;
+    }
+
+    private static class DashboardPart {
+        private final String name;
+        private final Object body;
+        private final String error;
+
+        DashboardPart(String name, Object body, String error) {
+            this.name = name;
+            this.body = body;
+            this.error = error;
+        }
+    }
+}
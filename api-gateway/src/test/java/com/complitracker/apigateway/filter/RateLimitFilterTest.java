@@ -0,0 +1,55 @@
+package com.complitracker.apigateway.filter;
+
+import com.complitracker.apigateway.ratelimit.InMemoryRateLimitStore;
+import com.complitracker.apigateway.ratelimit.RateLimitDecision;
+import com.complitracker.apigateway.security.JwtClaimsResolver;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTest {
+
+    private static final double NO_REFILL = 0.0001;
+
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore(100, Duration.ofMinutes(1));
+    private final RateLimitFilter factory = new RateLimitFilter(store, new SimpleMeterRegistry());
+
+    @Test
+    public void roleDenialDoesNotDrainTheCallersBucket() {
+        RateLimitFilter.Config config = new RateLimitFilter.Config();
+        config.setRouteId("core");
+        config.setReplenishRate(NO_REFILL);
+        config.setBurstCapacity(2);
+        config.setRoleLimits(List.of("ROLE_INTEGRATION:" + NO_REFILL + ":1"));
+        GatewayFilter filter = factory.apply(config);
+
+        assertThat(run(filter)).isNull();
+        assertThat(run(filter)).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(run(filter)).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        // only the allowed request was charged to alice
+        RateLimitDecision left = store.tryConsume("core|user|alice", 2, NO_REFILL).block();
+        assertThat(left.isAllowed()).isTrue();
+        assertThat(left.getRemainingTokens()).isZero();
+    }
+
+    private HttpStatus run(GatewayFilter filter) {
+        Claims claims = Jwts.claims().setSubject("alice");
+        claims.put("roles", List.of("ROLE_INTEGRATION"));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/core/items"));
+        exchange.getAttributes().put(JwtClaimsResolver.CLAIMS_ATTRIBUTE, claims);
+        filter.filter(exchange, ex -> Mono.empty()).block();
+        return exchange.getResponse().getStatusCode();
+    }
+}
@@ -0,0 +1,46 @@
+package com.complitracker.apigateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstanceLatencyTrackerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InstanceLatencyTracker tracker =
+        new InstanceLatencyTracker(meterRegistry, new LoadBalancerProperties());
+
+    @Test
+    public void dropsGaugesOfInstancesThatLeaveTheList() {
+        ServiceInstance a = instance("CORE-SERVICE", "10.0.0.1");
+        ServiceInstance b = instance("CORE-SERVICE", "10.0.0.2");
+        ServiceInstance other = instance("AUTH-SERVICE", "10.0.0.3");
+        tracker.retainInstances("core-service", List.of(a, b));
+        InstanceStats statsOfA = tracker.statsFor(a);
+        tracker.statsFor(b);
+        tracker.statsFor(other);
+        assertThat(gauges("10.0.0.2")).isEqualTo(3);
+
+        tracker.retainInstances("core-service", List.of(a));
+
+        assertThat(gauges("10.0.0.1")).isEqualTo(3);
+        assertThat(gauges("10.0.0.2")).isZero();
+        assertThat(gauges("10.0.0.3")).isEqualTo(3);
+        assertThat(tracker.statsFor(a)).isSameAs(statsOfA);
+    }
+
+    private long gauges(String host) {
+        return meterRegistry.getMeters().stream()
+            .filter(meter -> (host + ":8080").equals(meter.getId().getTag("instance")))
+            .count();
+    }
+
+    private static ServiceInstance instance(String serviceId, String host) {
+        return new DefaultServiceInstance(serviceId + "-" + host, serviceId, host, 8080, false);
+    }
+}
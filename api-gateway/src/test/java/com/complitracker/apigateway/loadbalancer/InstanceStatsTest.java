@@ -0,0 +1,70 @@
+package com.complitracker.apigateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class InstanceStatsTest {
+
+    private static final long DECAY = TimeUnit.SECONDS.toNanos(10);
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void slowSampleReplacesTheAverageAtOnce() {
+        InstanceStats stats = new InstanceStats(DECAY, clock::get);
+        complete(stats, 10 * MILLI);
+        clock.addAndGet(MILLI);
+        complete(stats, 500 * MILLI);
+
+        assertThat(stats.latencyNanos()).isEqualTo(500.0 * MILLI);
+    }
+
+    @Test
+    public void spikeAgesOutWithoutNewSamples() {
+        InstanceStats slow = new InstanceStats(DECAY, clock::get);
+        InstanceStats steady = new InstanceStats(DECAY, clock::get);
+        complete(slow, 2_000 * MILLI);
+        complete(steady, 20 * MILLI);
+        assertThat(slow.score()).isGreaterThan(steady.score());
+
+        // the slow instance gets no traffic while its peer keeps answering in 20 ms
+        for (int i = 0; i < 60; i++) {
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            complete(steady, 20 * MILLI);
+        }
+
+        assertThat(slow.latencyNanos()).isLessThan(5.0 * MILLI);
+        assertThat(slow.score()).isLessThan(steady.score());
+    }
+
+    @Test
+    public void readingDoesNotChangeTheStoredAverage() {
+        InstanceStats stats = new InstanceStats(DECAY, clock::get);
+        complete(stats, 100 * MILLI);
+        clock.addAndGet(DECAY);
+        double decayed = stats.latencyNanos();
+        assertThat(stats.latencyNanos()).isEqualTo(decayed);
+        assertThat(decayed).isCloseTo(100.0 * MILLI / Math.E, offset(1.0));
+    }
+
+    @Test
+    public void fasterSamplesPullTheAverageDownGradually() {
+        InstanceStats stats = new InstanceStats(DECAY, clock::get);
+        complete(stats, 100 * MILLI);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        complete(stats, 10 * MILLI);
+
+        assertThat(stats.latencyNanos()).isBetween(10.0 * MILLI, 100.0 * MILLI);
+    }
+
+    private static void complete(InstanceStats stats, long latencyNanos) {
+        stats.start();
+        stats.complete(latencyNanos);
+    }
+}
@@ -0,0 +1,97 @@
+package com.complitracker.benchmarks.auth;
+
+import com.complitracker.authservice.model.ERole;
+import com.complitracker.authservice.model.Role;
+import com.complitracker.authservice.model.User;
+import com.complitracker.authservice.repository.UserRepository;
+import com.complitracker.authservice.security.jwt.JwtUtils;
+import com.complitracker.authservice.security.services.UserDetailsImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared setup: the secret and lifetimes from auth-service's application.yml,
+ * and a compliance manager with three roles, which gives an access token of
+ * the size real users carry.
+ */
+final class AuthFixtures {
+
+    static final String SECRET =
+        "complitracker_jwt_secret_key_should_be_very_long_and_secure_in_production";
+    static final int EXPIRATION_MS = 86_400_000;
+    static final int REFRESH_EXPIRATION_MS = 604_800_000;
+
+    static final String EMAIL = "compliance.manager@example.com";
+
+    private AuthFixtures() {
+    }
+
+    static JwtUtils jwtUtils() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", EXPIRATION_MS);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpirationMs", REFRESH_EXPIRATION_MS);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    static User user() {
+        return User.builder()
+            .id(42L)
+            .name("Compliance Manager")
+            .email(EMAIL)
+            .password("$2a$10$rBV2JDeWW3.vKyeQo0pJ8eO/BZQZk5.wQZhF8wIOBGz7EHJXcS9Fa")
+            .createdAt(LocalDateTime.now())
+            .updatedAt(LocalDateTime.now())
+            .active(true)
+            .enabled(true)
+            .roles(new HashSet<>(Arrays.asList(
+                new Role(1, ERole.ROLE_USER),
+                new Role(3, ERole.ROLE_COMPLIANCE_MANAGER),
+                new Role(4, ERole.ROLE_DOCUMENT_MANAGER)
+            )))
+            .build();
+    }
+
+    static UserDetailsImpl principal() {
+        return UserDetailsImpl.build(user());
+    }
+
+    /**
+     * {@link UserRepository} backed by a map, answering only the lookups the
+     * authentication path makes.
+     */
+    static UserRepository inMemoryUserRepository(User... users) {
+        Map<String, User> byEmail = new ConcurrentHashMap<>();
+        for (User user : users) {
+            byEmail.put(user.getEmail(), user);
+        }
+        return (UserRepository) Proxy.newProxyInstance(
+            UserRepository.class.getClassLoader(),
+            new Class<?>[] {UserRepository.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "findByEmail":
+                        return Optional.ofNullable(byEmail.get((String) args[0]));
+                    case "existsByEmail":
+                        return byEmail.containsKey((String) args[0]);
+                    case "toString":
+                        return "InMemoryUserRepository" + byEmail.keySet();
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            }
+        );
+    }
+}
@@ -0,0 +1,98 @@
+package com.complitracker.benchmarks.auth;
+
+import com.complitracker.authservice.repository.UserRepository;
+import com.complitracker.authservice.security.jwt.AuthTokenFilter;
+import com.complitracker.authservice.security.jwt.JwtUtils;
+import com.complitracker.authservice.security.jwt.TokenRevocationService;
+import com.complitracker.authservice.security.services.PrincipalCache;
+import com.complitracker.authservice.security.services.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request through {@link AuthTokenFilter}: bearer parsing,
+ * verification, the revocation check and building the principal, against an
+ * in-memory user store.
+ * <ul>
+ *     <li>{@code stateless}: principal from the token claims
+ *     ({@code auth.stateless=true});</li>
+ *     <li>{@code cached}: principal from {@link PrincipalCache}, the default;</li>
+ *     <li>{@code uncached}: principal cache disabled, one user lookup per
+ *     request, the cost before the cache existed minus the database.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AuthTokenFilterBenchmark {
+
+    @Param({"stateless", "cached", "uncached"})
+    private String principalSource;
+
+    private AuthTokenFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        JwtUtils jwtUtils = AuthFixtures.jwtUtils();
+        UserRepository userRepository = AuthFixtures.inMemoryUserRepository(AuthFixtures.user());
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl();
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", userRepository);
+
+        long principalCacheSize = "uncached".equals(principalSource) ? 0 : 10_000;
+
+        filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "principalCache",
+            new PrincipalCache(principalCacheSize, Duration.ofSeconds(60)));
+        ReflectionTestUtils.setField(filter, "tokenRevocationService",
+            new TokenRevocationService(AuthFixtures.EXPIRATION_MS, 100_000));
+        ReflectionTestUtils.setField(filter, "statelessAuthentication", "stateless".equals(principalSource));
+
+        authorization = "Bearer " + jwtUtils.generateJwtToken(AuthFixtures.principal());
+    }
+
+    @Benchmark
+    public Authentication authenticateRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.setServletPath("/api/users/me");
+        request.addHeader("Authorization", authorization);
+        FilterChain chain = new MockFilterChain();
+
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null) {
+                throw new IllegalStateException("request was not authenticated");
+            }
+            return authentication;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.complitracker.benchmarks.auth;
+
+import com.complitracker.authservice.security.jwt.JwtUtils;
+import com.complitracker.authservice.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtUtils} as login, refresh and every authenticated request use it:
+ * issuing access and refresh tokens, verifying a token, and verifying plus
+ * reading the claims {@code AuthTokenFilter} needs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils jwtUtils;
+    private UserDetailsImpl principal;
+    private String accessToken;
+
+    @Setup
+    public void setup() {
+        jwtUtils = AuthFixtures.jwtUtils();
+        principal = AuthFixtures.principal();
+        accessToken = jwtUtils.generateJwtToken(principal);
+    }
+
+    @Benchmark
+    public String issueAccessToken() {
+        return jwtUtils.generateJwtToken(principal);
+    }
+
+    @Benchmark
+    public String issueRefreshToken() {
+        return jwtUtils.generateRefreshToken(AuthFixtures.EMAIL);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return jwtUtils.validateJwtToken(accessToken);
+    }
+
+    @Benchmark
+    public void verifyAndExtractClaims(Blackhole blackhole) {
+        Claims claims = jwtUtils.getValidatedClaims(accessToken);
+        blackhole.consume(claims.getSubject());
+        blackhole.consume(claims.get("id", Number.class));
+        blackhole.consume(claims.get("roles", List.class));
+    }
+}
@@ -0,0 +1,85 @@
+package com.complitracker.benchmarks.auth;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The choices behind the numbers in {@link JwtUtilsBenchmark}: HMAC strength,
+ * and whether the key and parser are prepared once or per call. Both
+ * services sign with HS512 over the same secret; auth-service used to build a
+ * parser from the raw secret bytes for every token it verified.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SigningBenchmark {
+
+    @Param({"HS256", "HS384", "HS512"})
+    private String algorithm;
+
+    private SignatureAlgorithm signatureAlgorithm;
+    private byte[] secretBytes;
+    private SecretKey key;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setup() {
+        signatureAlgorithm = SignatureAlgorithm.forName(algorithm);
+        secretBytes = AuthFixtures.SECRET.getBytes(StandardCharsets.UTF_8);
+        key = Keys.hmacShaKeyFor(secretBytes);
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return Jwts.builder()
+            .setId(UUID.randomUUID().toString())
+            .setSubject(AuthFixtures.EMAIL)
+            .claim("id", 42L)
+            .claim("roles", Arrays.asList("ROLE_USER", "ROLE_COMPLIANCE_MANAGER", "ROLE_DOCUMENT_MANAGER"))
+            .setIssuedAt(new Date())
+            .setExpiration(new Date(System.currentTimeMillis() + AuthFixtures.EXPIRATION_MS))
+            .signWith(key, signatureAlgorithm)
+            .compact();
+    }
+
+    @Benchmark
+    public Claims verifyWithSharedParser() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims verifyWithParserPerCall() {
+        return Jwts.parserBuilder()
+            .setSigningKey(secretBytes)
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+    }
+}
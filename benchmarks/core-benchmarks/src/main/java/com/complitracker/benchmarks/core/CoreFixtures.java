@@ -0,0 +1,93 @@
+package com.complitracker.benchmarks.core;
+
+import com.complitracker.core.model.RiskAnalysis;
+import com.complitracker.core.repository.RiskAnalysisRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A JPA context for the risk entities on an in-memory H2 database in
+ * PostgreSQL mode, with Hibernate statistics on so benchmarks can count the
+ * statements a call issues.
+ */
+final class CoreFixtures {
+    static final String AREA_ID = "area-1";
+    static final String OTHER_AREA_ID = "area-2";
+
+    private CoreFixtures() {
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = RiskAnalysis.class)
+    @EnableJpaRepositories(basePackageClasses = RiskAnalysisRepository.class)
+    static class Config {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(Config.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:core;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "spring.sql.init.mode=never")
+                .run();
+    }
+
+    /**
+     * Seeds {@code items} compliance items in each of two areas, each item
+     * analysed {@code analysesPerItem} times, every analysis scoring the same
+     * {@code factorNames} factors. An area therefore holds
+     * {@code items * analysesPerItem * factorNames} factor rows.
+     */
+    static void seed(ConfigurableApplicationContext context, int items, int analysesPerItem, int factorNames) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        for (String areaId : new String[] {AREA_ID, OTHER_AREA_ID}) {
+            for (int item = 0; item < items; item++) {
+                jdbc.update("INSERT INTO compliance_item (user_id, title, category, status, area_id) "
+                        + "VALUES (1, ?, 'GENERAL', 'OPEN', ?)", "Item " + item, areaId);
+                long itemId = jdbc.queryForObject("SELECT MAX(id) FROM compliance_item", Long.class);
+
+                for (int analysis = 0; analysis < analysesPerItem; analysis++) {
+                    jdbc.update("INSERT INTO risk_analyses "
+                                    + "(compliance_item_id, overall_score, risk_level, analysis_date, version) "
+                                    + "VALUES (?, 50, 'MEDIUM', ?, 0)",
+                            itemId, Timestamp.valueOf(start.plusDays((long) analysis * items + item)));
+                    long analysisId = jdbc.queryForObject("SELECT MAX(id) FROM risk_analyses", Long.class);
+
+                    List<Object[]> factors = new ArrayList<>(factorNames);
+                    for (int factor = 0; factor < factorNames; factor++) {
+                        factors.add(new Object[] {"factor-" + factor, random.nextDouble() * 100, analysisId});
+                    }
+                    jdbc.batchUpdate("INSERT INTO risk_factors (name, score, weight, risk_analysis_id) "
+                            + "VALUES (?, ?, 1.0, ?)", factors);
+                }
+            }
+        }
+    }
+
+    static Statistics statistics(ConfigurableApplicationContext context) {
+        return context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+}
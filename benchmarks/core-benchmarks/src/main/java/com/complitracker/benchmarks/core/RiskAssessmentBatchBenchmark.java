@@ -0,0 +1,103 @@
+package com.complitracker.benchmarks.core;
+
+import com.complitracker.core.config.AIServiceProperties;
+import com.complitracker.core.config.WebClientConfig;
+import com.complitracker.core.model.RiskAssessmentResult;
+import com.complitracker.core.service.RiskAssessmentBatcher;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RiskAssessmentBatcher#assess} from 64 concurrent callers, as during a
+ * bulk re-scoring, against {@link StubAiServer} with 20 ms of overhead per
+ * request and 8 workers.
+ * <ul>
+ *     <li>{@code batchSize=1}: one {@code /analyze} request per item, the
+ *     previous behaviour;</li>
+ *     <li>{@code batchSize=50}: items gathered for up to 20 ms and sent
+ *     together to {@code /analyze/batch}.</li>
+ * </ul>
+ * Requests and items the stub served are printed at teardown.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(64)
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+public class RiskAssessmentBatchBenchmark {
+    private static final int DISTINCT_ITEMS = 10_000;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private StubAiServer server;
+    private CloseableHttpClient httpClient;
+    private RiskAssessmentBatcher batcher;
+    private List<Map<String, Object>> payloads;
+
+    @Setup
+    public void setup() throws Exception {
+        server = new StubAiServer(8, 20, 100);
+
+        AIServiceProperties properties = new AIServiceProperties();
+        properties.setApiEndpoint(server.endpoint());
+        properties.setRequestTimeout(30_000);
+        properties.setBatchSize(batchSize);
+        properties.setBatchWindowMillis(20);
+        properties.setBatchConcurrency(8);
+        properties.setMaxConnections(64);
+
+        WebClientConfig webClientConfig = new WebClientConfig();
+        httpClient = webClientConfig.aiHttpClient(properties);
+        batcher = new RiskAssessmentBatcher(webClientConfig.restTemplate(httpClient), httpClient, properties);
+        batcher.start();
+
+        payloads = new ArrayList<>(DISTINCT_ITEMS);
+        for (int i = 0; i < DISTINCT_ITEMS; i++) {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("complianceType", "TYPE-" + (i % 12));
+            payload.put("requirements", "Requirements of item " + i);
+            payload.put("deadline", "2026-12-" + (1 + i % 28) + "T00:00:00");
+            payload.put("status", i % 3 == 0 ? "OPEN" : "IN_PROGRESS");
+            payload.put("documents", List.of("policy-" + i + ".pdf"));
+            payload.put("historicalData", List.of());
+            payloads.add(payload);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException, IOException {
+        batcher.stop();
+        httpClient.close();
+        server.close();
+        System.out.printf("%nbatchSize=%d: stub served %d requests for %d items%n",
+                batchSize, server.requests(), server.items());
+    }
+
+    @Benchmark
+    public RiskAssessmentResult assess() {
+        return batcher.assess(payloads.get(ThreadLocalRandom.current().nextInt(DISTINCT_ITEMS)));
+    }
+}
@@ -0,0 +1,129 @@
+package com.complitracker.benchmarks.core;
+
+import com.complitracker.core.model.RiskFactor;
+import com.complitracker.core.repository.RiskAnalysisRepository;
+import com.complitracker.core.service.RiskAnalysisService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link RiskAnalysisService#getRiskFactors} for one area of a seeded
+ * database, with {@code factorNames} distinct factors scored in each of ten
+ * analyses.
+ * <ul>
+ *     <li>{@code perFactorQueries}: the previous implementation, one
+ *     historical-scores query per factor row, each returning every score of
+ *     that factor in the area;</li>
+ *     <li>{@code windowFunction}: the current implementation, one query for
+ *     the factors and one for the latest and previous score per name.</li>
+ * </ul>
+ * The number of statements each variant issues per call is printed at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RiskFactorTrendBenchmark {
+    private static final int ITEMS = 2;
+    private static final int ANALYSES_PER_ITEM = 5;
+
+    private static final String HISTORICAL_FACTOR_SCORES = "SELECT rf.score FROM RiskAnalysis ra JOIN ra.riskFactors rf "
+            + "WHERE rf.name = :factorName AND ra.complianceItemId IN "
+            + "(SELECT ci.id FROM ComplianceItem ci WHERE ci.areaId = :areaId) ORDER BY ra.analysisDate DESC";
+
+    @Param({"20", "200"})
+    private int factorNames;
+
+    private ConfigurableApplicationContext context;
+    private RiskAnalysisRepository repository;
+    private EntityManagerFactory entityManagerFactory;
+    private RiskAnalysisService service;
+
+    @Setup
+    public void setup() {
+        context = CoreFixtures.start();
+        CoreFixtures.seed(context, ITEMS, ANALYSES_PER_ITEM, factorNames);
+        repository = context.getBean(RiskAnalysisRepository.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        service = new RiskAnalysisService(repository, null, null, null);
+
+        if (!perFactorQueries().equals(windowFunction())) {
+            throw new IllegalStateException("Both variants must return the same factors and trends");
+        }
+        System.out.printf("%nStatements per call, %d factor rows: perFactorQueries=%d, windowFunction=%d%n",
+                ITEMS * ANALYSES_PER_ITEM * factorNames,
+                countStatements(this::perFactorQueries),
+                countStatements(this::windowFunction));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> perFactorQueries() {
+        List<RiskFactor> factors = repository.findRiskFactorsByAreaId(CoreFixtures.AREA_ID);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<Map<String, Object>> result = new ArrayList<>(factors.size());
+            for (RiskFactor factor : factors) {
+                List<Double> scores = entityManager.createQuery(HISTORICAL_FACTOR_SCORES, Double.class)
+                        .setParameter("factorName", factor.getName())
+                        .setParameter("areaId", CoreFixtures.AREA_ID)
+                        .getResultList();
+                Map<String, Object> map = new HashMap<>();
+                map.put("name", factor.getName());
+                map.put("score", factor.getScore());
+                map.put("impact", factor.getScore() >= 75 ? "HIGH" : factor.getScore() >= 50 ? "MEDIUM" : "LOW");
+                map.put("trend", trend(scores));
+                result.add(map);
+            }
+            return result;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> windowFunction() {
+        return service.getRiskFactors(CoreFixtures.AREA_ID);
+    }
+
+    private long countStatements(Supplier<?> call) {
+        Statistics statistics = CoreFixtures.statistics(context);
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static String trend(List<Double> scores) {
+        if (scores.size() < 2) return "STABLE";
+        double difference = scores.get(0) - scores.get(1);
+        if (Math.abs(difference) < 5) return "STABLE";
+        return difference > 0 ? "INCREASING" : "DECREASING";
+    }
+}
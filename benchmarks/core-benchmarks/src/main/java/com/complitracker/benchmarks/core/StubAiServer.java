@@ -0,0 +1,117 @@
+package com.complitracker.benchmarks.core;
+
+import com.complitracker.core.model.RiskAssessmentBatch;
+import com.complitracker.core.model.RiskAssessmentBatchResult;
+import com.complitracker.core.model.RiskAssessmentResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local stand-in for the AI service's {@code /analyze} and
+ * {@code /analyze/batch} endpoints. Each request costs {@code requestMillis}
+ * whatever its size, plus {@code itemMicros} per assessed item, and requests
+ * are served by {@code workers} threads. Scores are derived from the payload,
+ * so identical payloads always get identical results.
+ */
+final class StubAiServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long requestMillis;
+    private final long itemMicros;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong items = new AtomicLong();
+
+    StubAiServer(int workers, long requestMillis, long itemMicros) throws IOException {
+        this.requestMillis = requestMillis;
+        this.itemMicros = itemMicros;
+        this.workers = Executors.newFixedThreadPool(workers);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/analyze", this::analyze);
+        this.server.createContext("/analyze/batch", this::analyzeBatch);
+        this.server.setExecutor(this.workers);
+        this.server.start();
+    }
+
+    String endpoint() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    long items() {
+        return items.get();
+    }
+
+    private void analyze(HttpExchange exchange) throws IOException {
+        Map<?, ?> item = read(exchange, Map.class);
+        work(1);
+        write(exchange, score(item));
+    }
+
+    private void analyzeBatch(HttpExchange exchange) throws IOException {
+        RiskAssessmentBatch batch = read(exchange, RiskAssessmentBatch.class);
+        work(batch.getItems().size());
+        List<RiskAssessmentResult> results = new ArrayList<>(batch.getItems().size());
+        for (Map<String, Object> item : batch.getItems()) {
+            results.add(score(item));
+        }
+        write(exchange, new RiskAssessmentBatchResult(results));
+    }
+
+    private void work(int itemCount) {
+        requests.incrementAndGet();
+        items.addAndGet(itemCount);
+        try {
+            Thread.sleep(requestMillis + itemCount * itemMicros / 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static RiskAssessmentResult score(Map<?, ?> item) {
+        int hash = item.hashCode();
+        return RiskAssessmentResult.builder()
+                .complexityScore(Math.floorMod(hash, 100))
+                .deadlineRiskScore(Math.floorMod(hash >> 8, 100))
+                .documentationScore(Math.floorMod(hash >> 16, 100))
+                .historicalScore(Math.floorMod(hash >> 24, 100))
+                .build();
+    }
+
+    private <T> T read(HttpExchange exchange, Class<T> type) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return objectMapper.readValue(body, type);
+        }
+    }
+
+    private void write(HttpExchange exchange, Object response) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,64 @@
+package com.complitracker.benchmarks.gateway;
+
+import com.complitracker.apigateway.security.JwtConfig;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared setup: the gateway's JWT secret and an access token shaped like the
+ * ones auth-service issues (jti, subject, id and three roles).
+ */
+final class GatewayFixtures {
+
+    static final String SECRET =
+        "complitracker_jwt_secret_key_should_be_very_long_and_secure_in_production";
+
+    // MockServerWebExchange creates a codec configurer per exchange, which
+    // would cost more than the filters being measured
+    private static final ServerCodecConfigurer CODECS = ServerCodecConfigurer.create();
+    private static final DefaultWebSessionManager SESSIONS = new DefaultWebSessionManager();
+    private static final AcceptHeaderLocaleContextResolver LOCALES = new AcceptHeaderLocaleContextResolver();
+
+    private GatewayFixtures() {
+    }
+
+    static JwtConfig jwtConfig() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        return jwtConfig;
+    }
+
+    static String accessToken(JwtConfig jwtConfig) {
+        return Jwts.builder()
+            .setId(UUID.randomUUID().toString())
+            .setSubject("compliance.manager@example.com")
+            .claim("id", 42L)
+            .claim("roles", Arrays.asList("ROLE_USER", "ROLE_COMPLIANCE_MANAGER", "ROLE_DOCUMENT_MANAGER"))
+            .setIssuedAt(new Date())
+            .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+            .signWith(jwtConfig.getSecretKey(), SignatureAlgorithm.HS512)
+            .compact();
+    }
+
+    static ServerWebExchange exchange(String token) {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/compliance/areas")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .build();
+        return new DefaultServerWebExchange(
+            request, new MockServerHttpResponse(), SESSIONS, CODECS, LOCALES
+        );
+    }
+}
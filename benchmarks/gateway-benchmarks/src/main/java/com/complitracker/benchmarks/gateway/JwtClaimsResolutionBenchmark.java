@@ -0,0 +1,89 @@
+package com.complitracker.benchmarks.gateway;
+
+import com.complitracker.apigateway.security.JwtClaimsResolver;
+import com.complitracker.apigateway.security.JwtConfig;
+import com.complitracker.apigateway.security.JwtTokenFilter;
+import com.complitracker.apigateway.security.VerifiedClaimsCache;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of turning a bearer token into claims on a protected route.
+ * {@code parsePerStage} mirrors the old chain, where the security filter parsed
+ * the token twice and {@link JwtTokenFilter} a third time; the resolve
+ * benchmarks go through {@link JwtClaimsResolver} the way both stages do now.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtClaimsResolutionBenchmark {
+
+    private String token;
+    private JwtParser jwtParser;
+    private JwtClaimsResolver uncachedResolver;
+    private JwtClaimsResolver cachedResolver;
+
+    @Setup
+    public void setup() {
+        JwtConfig jwtConfig = GatewayFixtures.jwtConfig();
+        token = GatewayFixtures.accessToken(jwtConfig);
+
+        jwtParser = Jwts.parserBuilder()
+            .setSigningKey(jwtConfig.getSecretKey())
+            .build();
+        uncachedResolver = new JwtClaimsResolver(
+            new VerifiedClaimsCache(jwtConfig, new SimpleMeterRegistry(), 0)
+        );
+        cachedResolver = new JwtClaimsResolver(
+            new VerifiedClaimsCache(jwtConfig, new SimpleMeterRegistry(), 10_000)
+        );
+    }
+
+    @Benchmark
+    public void parsePerStage(Blackhole blackhole) {
+        ServerWebExchange exchange = GatewayFixtures.exchange(token);
+        String bearer = JwtClaimsResolver.extractToken(exchange);
+
+        // validateToken, getAuthentication, then JwtTokenFilter
+        blackhole.consume(jwtParser.parseClaimsJws(bearer));
+        blackhole.consume(jwtParser.parseClaimsJws(bearer).getBody());
+        blackhole.consume(jwtParser.parseClaimsJws(bearer).getBody().getSubject());
+    }
+
+    @Benchmark
+    public void resolveOncePerRequest(Blackhole blackhole) {
+        resolveTwice(uncachedResolver, blackhole);
+    }
+
+    @Benchmark
+    public void resolveOncePerRequestWithClaimsCache(Blackhole blackhole) {
+        resolveTwice(cachedResolver, blackhole);
+    }
+
+    private void resolveTwice(JwtClaimsResolver resolver, Blackhole blackhole) {
+        ServerWebExchange exchange = GatewayFixtures.exchange(token);
+        String bearer = JwtClaimsResolver.extractToken(exchange);
+
+        // JwtAuthenticationFilter, then JwtTokenFilter
+        blackhole.consume(resolver.resolve(exchange, bearer));
+        blackhole.consume(resolver.resolve(exchange, bearer).getSubject());
+    }
+}
@@ -0,0 +1,85 @@
+package com.complitracker.benchmarks.gateway;
+
+import com.complitracker.apigateway.security.JwtAuthenticationFilter;
+import com.complitracker.apigateway.security.JwtClaimsResolver;
+import com.complitracker.apigateway.security.JwtConfig;
+import com.complitracker.apigateway.security.JwtTokenFilter;
+import com.complitracker.apigateway.security.VerifiedClaimsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The gateway's token path for one protected request: the security chain's
+ * {@link JwtAuthenticationFilter} followed by the route's {@link JwtTokenFilter},
+ * sharing claims through {@link JwtClaimsResolver}. {@code verifyOnly} is the
+ * claims verification on its own. With {@code claimsCache=false} every request
+ * pays for the HMAC check; with it on, repeat requests with the same token
+ * are answered from {@link VerifiedClaimsCache}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtTokenFilterBenchmark {
+
+    @Param({"false", "true"})
+    private boolean claimsCache;
+
+    private String token;
+    private VerifiedClaimsCache verifiedClaimsCache;
+    private JwtAuthenticationFilter authenticationFilter;
+    private GatewayFilter tokenFilter;
+
+    @Setup
+    public void setup() {
+        JwtConfig jwtConfig = GatewayFixtures.jwtConfig();
+        token = GatewayFixtures.accessToken(jwtConfig);
+
+        verifiedClaimsCache = new VerifiedClaimsCache(
+            jwtConfig, new SimpleMeterRegistry(), claimsCache ? 10_000 : 0
+        );
+        JwtClaimsResolver claimsResolver = new JwtClaimsResolver(verifiedClaimsCache);
+        authenticationFilter = new JwtAuthenticationFilter(claimsResolver);
+        tokenFilter = new JwtTokenFilter(claimsResolver).apply(new JwtTokenFilter.Config());
+    }
+
+    @Benchmark
+    public Object verifyOnly() {
+        return verifiedClaimsCache.verify(token);
+    }
+
+    @Benchmark
+    public ServerWebExchange filterRequest() {
+        ServerWebExchange exchange = GatewayFixtures.exchange(token);
+        ServerWebExchange[] forwarded = new ServerWebExchange[1];
+
+        authenticationFilter.filter(exchange, securedExchange ->
+            tokenFilter.filter(securedExchange, routedExchange -> {
+                forwarded[0] = routedExchange;
+                return Mono.empty();
+            })
+        ).block();
+
+        if (forwarded[0] == null || forwarded[0].getRequest().getHeaders().getFirst("X-User-Id") == null) {
+            throw new IllegalStateException("request was not forwarded with X-User-Id");
+        }
+        return forwarded[0];
+    }
+}
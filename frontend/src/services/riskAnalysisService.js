@@ -60,10 +60,12 @@ const riskAnalysisService = {
     );
   },
 
-  // Get historical risk analysis data
-  getRiskAnalysisHistory: async (token, entityType, entityId) => {
+  // Get historical risk analysis data, newest first. Pass the X-Next-Cursor
+  // response header as params.before to fetch the next page.
+  getRiskAnalysisHistory: async (token, entityType, entityId, params = {}) => {
     return await axiosInstance(token).get(
       `/risk-analysis/history/${entityType}/${entityId}`,
+      { params },
     );
   },
 };
@@ -0,0 +1,49 @@
+#!/bin/bash
+
+# Builds and runs the JMH benchmarks in benchmarks/ and writes one JSON result
+# file per module to benchmarks/results/, named by module and timestamp, for
+# regression tracking. Extra arguments are passed to JMH, for example:
+#   ./scripts/run-benchmarks.sh -f 1 -wi 2 -i 3 JwtUtilsBenchmark
+# Modules with no benchmark matching the given pattern are skipped.
+
+# Function to check if a command was successful
+check_status() {
+    if [ $? -ne 0 ]; then
+        echo "Error: $1 failed"
+        exit 1
+    fi
+}
+
+# Set working directory to project root
+cd "$(dirname "$0")/.." || exit 1
+
+echo "Building benchmarks..."
+mvn -q -f benchmarks/pom.xml clean package
+check_status "Maven build for benchmarks"
+
+results_dir="benchmarks/results"
+timestamp=$(date +%Y%m%d-%H%M%S)
+mkdir -p "$results_dir"
+
+ran=0
+for module in auth-benchmarks gateway-benchmarks core-benchmarks; do
+    jar="benchmarks/$module/target/benchmarks.jar"
+    # -l prints "Benchmarks:" followed by one line per match
+    matches=$(java -jar "$jar" -l "$@" | tail -n +2 | grep -c .)
+    if [ "$matches" -eq 0 ]; then
+        echo "Skipping $module: no matching benchmarks"
+        continue
+    fi
+
+    result_file="$results_dir/$module-$timestamp.json"
+    echo "Running $module..."
+    java -jar "$jar" -rf json -rff "$result_file" "$@"
+    check_status "Running $module"
+    echo "Results written to $result_file"
+    ran=$((ran + 1))
+done
+
+if [ "$ran" -eq 0 ]; then
+    echo "Error: no benchmarks match the given arguments"
+    exit 1
+fi
@@ -0,0 +1,41 @@
+package com.complitracker.authservice.controller;
+
+import com.complitracker.authservice.security.audit.SecurityAuditService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/audit")
+@PreAuthorize("hasRole('ADMIN')")
+public class AuditController {
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private SecurityAuditService securityAuditService;
+
+    /**
+     * Audit events in {@code [from, to)}, newest first, optionally for one
+     * user. Defaults to the last 24 hours.
+     */
+    @GetMapping("/events")
+    public ResponseEntity<?> getEvents(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(1);
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(securityAuditService.findEvents(username, start, end, boundedLimit));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        return ResponseEntity.ok(securityAuditService.stats());
+    }
+}
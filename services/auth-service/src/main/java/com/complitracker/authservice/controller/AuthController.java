@@ -1,7 +1,5 @@
 package com.complitracker.authservice.controller;
 
-import com.complitracker.authservice.model.ERole;
-import com.complitracker.authservice.model.Role;
 import com.complitracker.authservice.model.User;
 import com.complitracker.authservice.payload.request.LoginRequest;
 import com.complitracker.authservice.payload.request.RegisterRequest;
@@ -9,13 +7,22 @@ import com.complitracker.authservice.payload.request.TokenRefreshRequest;
 import com.complitracker.authservice.payload.response.JwtResponse;
 import com.complitracker.authservice.payload.response.MessageResponse;
 import com.complitracker.authservice.payload.response.TokenRefreshResponse;
-import com.complitracker.authservice.repository.RoleRepository;
+import com.complitracker.authservice.provisioning.RoleRegistry;
 import com.complitracker.authservice.repository.UserRepository;
+import com.complitracker.authservice.security.AccountLockoutService;
+import com.complitracker.authservice.security.audit.SecurityAuditService;
 import com.complitracker.authservice.security.jwt.JwtUtils;
+import com.complitracker.authservice.security.jwt.RefreshTokenService;
+import com.complitracker.authservice.security.jwt.TokenRevocationService;
 import com.complitracker.authservice.security.services.UserDetailsImpl;
+import com.complitracker.authservice.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,9 +31,7 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -39,7 +44,7 @@ public class AuthController {
     UserRepository userRepository;
 
     @Autowired
-    RoleRepository roleRepository;
+    RoleRegistry roleRegistry;
 
     @Autowired
     PasswordEncoder encoder;
@@ -47,16 +52,50 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Autowired
+    UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    AccountLockoutService accountLockoutService;
+
+    @Autowired
+    SecurityAuditService securityAuditService;
+
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
+        String email = loginRequest.getEmail();
+        if (accountLockoutService.isAccountLocked(email)) {
+            return ResponseEntity
+                    .status(HttpStatus.LOCKED)
+                    .body(new MessageResponse("Error: Account is locked. Try again in "
+                            + accountLockoutService.getRemainingLockoutTime(email) + " minutes."));
+        }
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(email, loginRequest.getPassword()));
+        } catch (BadCredentialsException e) {
+            securityAuditService.logAuthenticationFailure(email, "local", e.getMessage());
+            if (accountLockoutService.recordFailedAttempt(email)) {
+                securityAuditService.logAccountLocked(email);
+            }
+            throw e;
+        }
+        accountLockoutService.resetFailedAttempts(email);
+        securityAuditService.logAuthenticationSuccess(email, "local");
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         String jwt = jwtUtils.generateJwtToken(authentication);
-        String refreshToken = jwtUtils.generateRefreshToken(loginRequest.getEmail());
+        String refreshToken = refreshTokenService.issue(userDetails);
         
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         List<String> roles = userDetails.getAuthorities().stream()
                 .map(item -> item.getAuthority())
                 .collect(Collectors.toList());
@@ -88,40 +127,7 @@ public class AuthController {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        Set<String> strRoles = registerRequest.getRoles();
-        Set<Role> roles = new HashSet<>();
-
-        if (strRoles == null || strRoles.isEmpty()) {
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                    .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-            roles.add(userRole);
-        } else {
-            strRoles.forEach(role -> {
-                switch (role) {
-                    case "admin":
-                        Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(adminRole);
-                        break;
-                    case "compliance_manager":
-                        Role complianceRole = roleRepository.findByName(ERole.ROLE_COMPLIANCE_MANAGER)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(complianceRole);
-                        break;
-                    case "document_manager":
-                        Role docRole = roleRepository.findByName(ERole.ROLE_DOCUMENT_MANAGER)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(docRole);
-                        break;
-                    default:
-                        Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(userRole);
-                }
-            });
-        }
-
-        user.setRoles(roles);
+        user.setRoles(roleRegistry.resolve(registerRequest.getRoles()));
         userRepository.save(user);
 
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
@@ -131,16 +137,53 @@ public class AuthController {
     public ResponseEntity<?> refreshToken(@Valid @RequestBody TokenRefreshRequest request) {
         String requestRefreshToken = request.getRefreshToken();
 
-        if (!jwtUtils.validateJwtToken(requestRefreshToken)) {
+        Claims claims = jwtUtils.getValidatedClaims(requestRefreshToken);
+        if (claims == null || !JwtUtils.REFRESH_TOKEN.equals(claims.get(JwtUtils.TOKEN_TYPE_CLAIM, String.class))) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Invalid refresh token!"));
+        }
+
+        String username = claims.getSubject();
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(claims);
+        if (rotation == RefreshTokenService.Rotation.REUSED) {
+            securityAuditService.logRefreshTokenReuse(username);
+        }
+        if (rotation != RefreshTokenService.Rotation.ROTATED) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: Invalid refresh token!"));
         }
         
-        String username = jwtUtils.getUserNameFromJwtToken(requestRefreshToken);
-        String newAccessToken = jwtUtils.generateJwtToken(username);
+        UserDetailsImpl userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername(username);
+        String newAccessToken = jwtUtils.generateJwtToken(userDetails);
+        String newRefreshToken = refreshTokenService.issue(userDetails);
+        securityAuditService.logTokenRefresh(username);
         
         return ResponseEntity.ok(new TokenRefreshResponse(
                 newAccessToken,
-                requestRefreshToken,
+                newRefreshToken,
                 "Bearer"));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+            @RequestBody(required = false) TokenRefreshRequest request) {
+        if (!authorization.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Bearer token required!"));
+        }
+
+        Claims claims = jwtUtils.getValidatedClaims(authorization.substring(7));
+        if (claims == null) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Invalid token!"));
+        }
+
+        tokenRevocationService.revokeToken(claims);
+
+        if (request != null && request.getRefreshToken() != null) {
+            Claims refreshClaims = jwtUtils.getValidatedClaims(request.getRefreshToken());
+            if (refreshClaims != null && JwtUtils.isRefreshToken(refreshClaims)
+                    && claims.getSubject().equals(refreshClaims.getSubject())) {
+                refreshTokenService.revoke(refreshClaims);
+            }
+        }
+        return ResponseEntity.ok(new MessageResponse("Logged out successfully"));
+    }
+}
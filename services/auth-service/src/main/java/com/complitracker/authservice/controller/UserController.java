@@ -2,15 +2,32 @@ package com.complitracker.authservice.controller;
 
 import com.complitracker.authservice.model.User;
 import com.complitracker.authservice.payload.response.MessageResponse;
+import com.complitracker.authservice.provisioning.ProvisioningResult;
+import com.complitracker.authservice.provisioning.UserImportReader;
+import com.complitracker.authservice.provisioning.UserProvisioningService;
 import com.complitracker.authservice.repository.UserRepository;
+import com.complitracker.authservice.security.audit.SecurityAuditService;
+import com.complitracker.authservice.security.hashing.PasswordHashingExecutor;
+import com.complitracker.authservice.security.jwt.RefreshTokenService;
+import com.complitracker.authservice.security.services.PrincipalCache;
 import com.complitracker.authservice.security.services.UserDetailsImpl;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
 @RestController
@@ -20,6 +37,24 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+
+    @Autowired
+    private SecurityAuditService securityAuditService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -67,7 +102,67 @@ public class UserController {
         }
         
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
         
         return ResponseEntity.ok(new MessageResponse("User updated successfully"));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/principal-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getPrincipalCacheStats() {
+        return ResponseEntity.ok(principalCache.stats());
+    }
+
+    @GetMapping("/refresh-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getRefreshTokenStats() {
+        return ResponseEntity.ok(refreshTokenService.stats());
+    }
+
+    @GetMapping("/password-hashing")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashingExecutor.stats());
+    }
+
+    /**
+     * Creates users from a CSV or NDJSON upload and streams back one NDJSON
+     * result per row as each chunk is written. See {@link UserImportReader}
+     * for the accepted formats.
+     */
+    @PostMapping(value = "/bulk", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void provisionUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        UserImportReader reader;
+        try {
+            reader = UserImportReader.open(
+                    MediaType.parseMediaType(request.getContentType()), request.getInputStream(), objectMapper);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new MessageResponse("Error: " + e.getMessage()));
+            return;
+        }
+
+        response.setContentType("application/x-ndjson");
+        OutputStream output = response.getOutputStream();
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        Map<ProvisioningResult.Status, Integer> counts;
+        try (UserImportReader rows = reader) {
+            counts = userProvisioningService.provision(rows, results -> {
+                try {
+                    for (ProvisioningResult result : results) {
+                        writer.writeValue(output, result);
+                        output.write('\n');
+                    }
+                    output.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        securityAuditService.logBulkProvisioning(authentication.getName(), counts);
+    }
+}
@@ -0,0 +1,11 @@
+package com.complitracker.authservice.exception;
+
+/**
+ * Thrown when the password-hashing executor is saturated or a hash does not
+ * finish in time. Mapped to 503 so clients back off instead of piling on.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
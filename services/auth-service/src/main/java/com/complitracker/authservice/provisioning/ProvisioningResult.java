@@ -0,0 +1,34 @@
+package com.complitracker.authservice.provisioning;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+/**
+ * Outcome of one row of a bulk provisioning upload. {@code row} is the
+ * 1-based position of the record in the upload, not counting a CSV header
+ * or blank lines.
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProvisioningResult {
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID,
+        FAILED
+    }
+
+    int row;
+    String email;
+    Status status;
+    Long id;
+    String message;
+
+    static ProvisioningResult created(int row, String email, long id) {
+        return new ProvisioningResult(row, email, Status.CREATED, id, null);
+    }
+
+    static ProvisioningResult rejected(int row, String email, Status status, String message) {
+        return new ProvisioningResult(row, email, status, null, message);
+    }
+}
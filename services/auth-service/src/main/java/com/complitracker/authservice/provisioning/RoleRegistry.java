@@ -0,0 +1,74 @@
+package com.complitracker.authservice.provisioning;
+
+import com.complitracker.authservice.model.ERole;
+import com.complitracker.authservice.model.Role;
+import com.complitracker.authservice.repository.RoleRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The roles table, held in memory. It has one row per {@link ERole} and never
+ * changes at runtime, so it is loaded on first use and reloaded only if a
+ * role turns out to be missing (e.g. before the roles have been seeded).
+ */
+@Component
+public class RoleRegistry {
+    private final RoleRepository roleRepository;
+    private volatile Map<ERole, Role> roles = Collections.emptyMap();
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    /**
+     * Maps the role names accepted at registration to roles. Unknown names
+     * and an empty set both resolve to {@link ERole#ROLE_USER}.
+     */
+    public Set<Role> resolve(Set<String> names) {
+        Set<Role> resolved = new HashSet<>();
+        if (names == null || names.isEmpty()) {
+            resolved.add(get(ERole.ROLE_USER));
+            return resolved;
+        }
+        for (String name : names) {
+            resolved.add(get(toRole(name)));
+        }
+        return resolved;
+    }
+
+    public Role get(ERole name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            role = reload().get(name);
+        }
+        if (role == null) {
+            throw new RuntimeException("Error: Role is not found.");
+        }
+        return role;
+    }
+
+    private synchronized Map<ERole, Role> reload() {
+        Map<ERole, Role> loaded = new EnumMap<>(ERole.class);
+        roleRepository.findAll().forEach(role -> loaded.put(role.getName(), role));
+        roles = loaded;
+        return loaded;
+    }
+
+    private static ERole toRole(String name) {
+        switch (name) {
+            case "admin":
+                return ERole.ROLE_ADMIN;
+            case "compliance_manager":
+                return ERole.ROLE_COMPLIANCE_MANAGER;
+            case "document_manager":
+                return ERole.ROLE_DOCUMENT_MANAGER;
+            default:
+                return ERole.ROLE_USER;
+        }
+    }
+}
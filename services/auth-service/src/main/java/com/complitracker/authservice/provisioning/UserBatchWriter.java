@@ -0,0 +1,98 @@
+package com.complitracker.authservice.provisioning;
+
+import com.complitracker.authservice.model.Role;
+import lombok.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Inserts users and their roles with JDBC batches, bypassing JPA. Users are
+ * created active and not yet enabled, as {@code /api/auth/register} creates
+ * them. No user events are raised, which is fine for new rows: nothing can
+ * have been cached for them yet.
+ */
+@Component
+public class UserBatchWriter {
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserBatchWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Value
+    public static class NewUser {
+        String name;
+        String email;
+        String passwordHash;
+        Set<Role> roles;
+    }
+
+    public Set<String> existingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT email FROM users WHERE email IN (:emails)",
+                new MapSqlParameterSource("emails", emails),
+                String.class));
+    }
+
+    /**
+     * Inserts the users and their role links in one transaction and returns
+     * the new ids by email. Fails as a whole if any email is already taken.
+     */
+    public Map<String, Long> insertAll(List<NewUser> users) {
+        return transactionTemplate.execute(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO users (name, email, password, created_at, updated_at, active, enabled) "
+                            + "VALUES (?, ?, ?, ?, ?, true, false)",
+                    users,
+                    users.size(),
+                    (ps, user) -> {
+                        ps.setString(1, user.getName());
+                        ps.setString(2, user.getEmail());
+                        ps.setString(3, user.getPasswordHash());
+                        ps.setTimestamp(4, now);
+                        ps.setTimestamp(5, now);
+                    });
+
+            Map<String, Long> ids = new HashMap<>();
+            namedJdbcTemplate.query(
+                    "SELECT id, email FROM users WHERE email IN (:emails)",
+                    new MapSqlParameterSource("emails",
+                            users.stream().map(NewUser::getEmail).collect(Collectors.toList())),
+                    rs -> {
+                        ids.put(rs.getString("email"), rs.getLong("id"));
+                    });
+
+            List<Object[]> links = new ArrayList<>();
+            for (NewUser user : users) {
+                Long id = ids.get(user.getEmail());
+                for (Role role : user.getRoles()) {
+                    links.add(new Object[] {id, role.getId()});
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", links);
+            return ids;
+        });
+    }
+}
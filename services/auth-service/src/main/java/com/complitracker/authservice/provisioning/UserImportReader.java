@@ -0,0 +1,274 @@
+package com.complitracker.authservice.provisioning;
+
+import com.complitracker.authservice.payload.request.RegisterRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads users one record at a time from an upload, so the upload is never
+ * held in memory. Two formats are accepted:
+ * <ul>
+ *   <li>{@code text/csv}: a header row naming the {@code name}, {@code email},
+ *   {@code password} and optional {@code roles} columns in any order, roles
+ *   separated by {@code ;}. Fields may be quoted as in RFC 4180.</li>
+ *   <li>{@code application/x-ndjson}: one {@link RegisterRequest} JSON object
+ *   per line.</li>
+ * </ul>
+ * Blank lines are skipped in both.
+ */
+public abstract class UserImportReader implements Closeable {
+    public static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+    public static final MediaType APPLICATION_NDJSON = MediaType.valueOf("application/x-ndjson");
+
+    private static final int MAX_RECORD_LENGTH = 8192;
+
+    protected final BufferedReader reader;
+    private int row;
+
+    private UserImportReader(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Opens a reader for the given content type. For CSV this reads the
+     * header, and fails with {@link IllegalArgumentException} if it is too
+     * long or does not name the required columns.
+     */
+    public static UserImportReader open(MediaType contentType, InputStream input, ObjectMapper objectMapper)
+            throws IOException {
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            return new Csv(input);
+        }
+        if (APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return new Ndjson(input, objectMapper);
+        }
+        throw new IllegalArgumentException("Unsupported content type " + contentType);
+    }
+
+    /**
+     * The next record, or null at the end of the upload.
+     */
+    public abstract UserImportRow next() throws IOException;
+
+    protected int nextRow() {
+        return ++row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static final class Ndjson extends UserImportReader {
+        private final ObjectMapper objectMapper;
+
+        Ndjson(InputStream input, ObjectMapper objectMapper) {
+            super(input);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public UserImportRow next() throws IOException {
+            String line;
+            do {
+                try {
+                    line = readLine();
+                } catch (RecordTooLongException e) {
+                    return new UserImportRow(nextRow(), null, e.getMessage());
+                }
+                if (line == null) {
+                    return null;
+                }
+            } while (line.trim().isEmpty());
+
+            int row = nextRow();
+            try {
+                return new UserImportRow(row, objectMapper.readValue(line, RegisterRequest.class), null);
+            } catch (JsonProcessingException e) {
+                return new UserImportRow(row, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        /**
+         * The next line without its terminator, or null at the end of the
+         * input. Unlike {@link BufferedReader#readLine()} it stops buffering
+         * at {@code MAX_RECORD_LENGTH} and skips the rest of the line.
+         */
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = reader.read()) != -1 && c != '\n') {
+                if (c == '\r') {
+                    continue;
+                }
+                if (line.length() == MAX_RECORD_LENGTH) {
+                    skipLine();
+                    throw new RecordTooLongException();
+                }
+                line.append((char) c);
+            }
+            if (c == -1 && line.length() == 0) {
+                return null;
+            }
+            return line.toString();
+        }
+
+        private void skipLine() throws IOException {
+            int c;
+            do {
+                c = reader.read();
+            } while (c != -1 && c != '\n');
+        }
+    }
+
+    private static final class Csv extends UserImportReader {
+        private static final List<String> REQUIRED_COLUMNS = Arrays.asList("name", "email", "password");
+
+        private final int nameColumn;
+        private final int emailColumn;
+        private final int passwordColumn;
+        private final int rolesColumn;
+
+        Csv(InputStream input) throws IOException {
+            super(input);
+            List<String> header;
+            try {
+                header = readFields();
+            } catch (RecordTooLongException e) {
+                throw new IllegalArgumentException("CSV header is longer than " + MAX_RECORD_LENGTH + " characters");
+            }
+            if (header == null) {
+                throw new IllegalArgumentException("CSV upload is empty");
+            }
+            List<String> columns = header.stream()
+                    .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toList());
+            List<String> missing = REQUIRED_COLUMNS.stream()
+                    .filter(column -> !columns.contains(column))
+                    .collect(Collectors.toList());
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("CSV header is missing column(s) " + missing);
+            }
+            this.nameColumn = columns.indexOf("name");
+            this.emailColumn = columns.indexOf("email");
+            this.passwordColumn = columns.indexOf("password");
+            this.rolesColumn = columns.indexOf("roles");
+        }
+
+        @Override
+        public UserImportRow next() throws IOException {
+            List<String> fields;
+            try {
+                fields = readFields();
+            } catch (RecordTooLongException e) {
+                return new UserImportRow(nextRow(), null, e.getMessage());
+            }
+            if (fields == null) {
+                return null;
+            }
+
+            RegisterRequest request = new RegisterRequest();
+            request.setName(field(fields, nameColumn));
+            request.setEmail(field(fields, emailColumn));
+            request.setPassword(field(fields, passwordColumn));
+            String roles = field(fields, rolesColumn);
+            if (roles != null && !roles.trim().isEmpty()) {
+                Set<String> names = new HashSet<>();
+                for (String role : roles.split(";")) {
+                    if (!role.trim().isEmpty()) {
+                        names.add(role.trim());
+                    }
+                }
+                request.setRoles(names);
+            }
+            return new UserImportRow(nextRow(), request, null);
+        }
+
+        private static String field(List<String> fields, int column) {
+            return column >= 0 && column < fields.size() ? fields.get(column) : null;
+        }
+
+        /**
+         * The fields of the next non-blank record, or null at the end of the
+         * input. A quoted field may span lines.
+         */
+        private List<String> readFields() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int length = 0;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (++length > MAX_RECORD_LENGTH) {
+                    skipRecord(quoted);
+                    throw new RecordTooLongException();
+                }
+                if (quoted) {
+                    if (c != '"') {
+                        field.append((char) c);
+                        continue;
+                    }
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r') {
+                    continue;
+                } else if (c == '\n') {
+                    if (fields.isEmpty() && field.length() == 0) {
+                        length = 0;
+                        continue;
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+            }
+            if (c == -1 && fields.isEmpty() && field.length() == 0) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private void skipRecord(boolean quoted) throws IOException {
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == '\n' && !quoted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class RecordTooLongException extends IOException {
+        RecordTooLongException() {
+            super("Record is longer than " + MAX_RECORD_LENGTH + " characters");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.complitracker.authservice.provisioning;
+
+import com.complitracker.authservice.payload.request.RegisterRequest;
+import lombok.Value;
+
+/**
+ * One record read from an upload: either a parsed request or the reason it
+ * could not be parsed.
+ */
+@Value
+class UserImportRow {
+    int row;
+    RegisterRequest request;
+    String error;
+}
@@ -0,0 +1,228 @@
+package com.complitracker.authservice.provisioning;
+
+import com.complitracker.authservice.payload.request.RegisterRequest;
+import com.complitracker.authservice.provisioning.ProvisioningResult.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Creates users from an upload in chunks of {@code auth.provisioning.batch-size}
+ * rows. Each chunk is validated against the same rules as registration,
+ * checked for taken emails with one query, hashed in parallel and written
+ * with JDBC batches. The results for every row of the chunk are then passed
+ * to the sink together, in upload order, before the next chunk is read.
+ *
+ * Hashing runs on a pool of its own, separate from the one that serves
+ * logins, so a large upload cannot starve them. Its queue holds one chunk;
+ * beyond that the uploading thread hashes itself, which throttles concurrent
+ * uploads instead of failing them.
+ */
+@Service
+public class UserProvisioningService {
+    private static final Logger logger = LoggerFactory.getLogger(UserProvisioningService.class);
+
+    private final UserBatchWriter writer;
+    private final RoleRegistry roleRegistry;
+    private final Validator validator;
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor hashPool;
+    private final int batchSize;
+
+    public UserProvisioningService(
+            UserBatchWriter writer,
+            RoleRegistry roleRegistry,
+            Validator validator,
+            @Value("${auth.password-hashing.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${auth.provisioning.hash-threads:0}") int hashThreads,
+            @Value("${auth.provisioning.batch-size:200}") int batchSize) {
+        this.writer = writer;
+        this.roleRegistry = roleRegistry;
+        this.validator = validator;
+        this.passwordEncoder = new BCryptPasswordEncoder(bcryptStrength);
+        this.batchSize = batchSize;
+
+        int poolSize = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashPool = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-provisioning-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Provisions every row the reader yields and returns how many rows ended
+     * in each status.
+     */
+    public Map<Status, Integer> provision(UserImportReader reader, Consumer<List<ProvisioningResult>> sink)
+            throws IOException {
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        Set<String> seen = new HashSet<>();
+        List<UserImportRow> chunk = new ArrayList<>(batchSize);
+
+        UserImportRow row;
+        while ((row = reader.next()) != null) {
+            chunk.add(row);
+            if (chunk.size() == batchSize) {
+                provisionChunk(chunk, seen, sink, counts);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            provisionChunk(chunk, seen, sink, counts);
+        }
+        return counts;
+    }
+
+    private void provisionChunk(List<UserImportRow> chunk, Set<String> seen,
+                                Consumer<List<ProvisioningResult>> sink, Map<Status, Integer> counts) {
+        ProvisioningResult[] results = new ProvisioningResult[chunk.size()];
+
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            UserImportRow row = chunk.get(i);
+            String email = row.getRequest() != null ? row.getRequest().getEmail() : null;
+            String error = row.getError() != null ? row.getError() : validate(row.getRequest());
+            if (error != null) {
+                results[i] = ProvisioningResult.rejected(row.getRow(), email, Status.INVALID, error);
+            } else if (!seen.add(email)) {
+                results[i] = ProvisioningResult.rejected(row.getRow(), email, Status.DUPLICATE,
+                        "Email appears earlier in the upload");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        Set<String> existing = writer.existingEmails(accepted.stream()
+                .map(i -> chunk.get(i).getRequest().getEmail())
+                .collect(Collectors.toList()));
+        List<Future<String>> hashes = new ArrayList<>();
+        List<Integer> hashed = new ArrayList<>();
+        for (int i : accepted) {
+            UserImportRow row = chunk.get(i);
+            RegisterRequest request = row.getRequest();
+            if (existing.contains(request.getEmail())) {
+                results[i] = ProvisioningResult.rejected(row.getRow(), request.getEmail(), Status.DUPLICATE,
+                        "Email is already in use");
+            } else {
+                hashes.add(hashPool.submit(() -> passwordEncoder.encode(request.getPassword())));
+                hashed.add(i);
+            }
+        }
+
+        List<Integer> pending = new ArrayList<>();
+        List<UserBatchWriter.NewUser> users = new ArrayList<>();
+        for (int j = 0; j < hashed.size(); j++) {
+            int i = hashed.get(j);
+            UserImportRow row = chunk.get(i);
+            RegisterRequest request = row.getRequest();
+            try {
+                users.add(new UserBatchWriter.NewUser(
+                        request.getName(),
+                        request.getEmail(),
+                        hashes.get(j).get(),
+                        roleRegistry.resolve(request.getRoles())));
+                pending.add(i);
+            } catch (ExecutionException | RuntimeException e) {
+                results[i] = ProvisioningResult.rejected(row.getRow(), request.getEmail(), Status.FAILED,
+                        e instanceof ExecutionException ? e.getCause().getMessage() : e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while hashing passwords", e);
+            }
+        }
+
+        if (!users.isEmpty()) {
+            insert(chunk, pending, users, results);
+        }
+
+        for (ProvisioningResult result : results) {
+            counts.merge(result.getStatus(), 1, Integer::sum);
+        }
+        sink.accept(Arrays.asList(results));
+    }
+
+    /**
+     * Inserts the chunk in one batch. If that fails, typically because a
+     * registration took one of the emails since it was checked, the rows are
+     * retried one at a time so only the offending ones are rejected.
+     */
+    private void insert(List<UserImportRow> chunk, List<Integer> pending, List<UserBatchWriter.NewUser> users,
+                        ProvisioningResult[] results) {
+        try {
+            Map<String, Long> ids = writer.insertAll(users);
+            for (int i : pending) {
+                String email = chunk.get(i).getRequest().getEmail();
+                results[i] = ProvisioningResult.created(chunk.get(i).getRow(), email, ids.get(email));
+            }
+            return;
+        } catch (DataAccessException e) {
+            logger.warn("Batch insert of {} users failed, retrying row by row: {}", users.size(), e.getMessage());
+        }
+
+        for (int j = 0; j < users.size(); j++) {
+            int i = pending.get(j);
+            UserBatchWriter.NewUser user = users.get(j);
+            int row = chunk.get(i).getRow();
+            try {
+                Long id = writer.insertAll(Collections.singletonList(user)).get(user.getEmail());
+                results[i] = ProvisioningResult.created(row, user.getEmail(), id);
+            } catch (DuplicateKeyException e) {
+                results[i] = ProvisioningResult.rejected(row, user.getEmail(), Status.DUPLICATE,
+                        "Email is already in use");
+            } catch (DataAccessException e) {
+                results[i] = ProvisioningResult.rejected(row, user.getEmail(), Status.FAILED, e.getMessage());
+            }
+        }
+    }
+
+    private String validate(RegisterRequest request) {
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdown();
+    }
+}
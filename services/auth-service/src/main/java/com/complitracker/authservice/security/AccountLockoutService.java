@@ -1,84 +1,117 @@
 package com.complitracker.authservice.security;
 
+import com.complitracker.authservice.security.lockout.InMemoryLockoutStore;
+import com.complitracker.authservice.security.lockout.LockoutProperties;
+import com.complitracker.authservice.security.lockout.LockoutStore;
+import com.complitracker.authservice.security.lockout.UntilDeadline;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Locks an account after too many failed logins within a sliding window.
+ * Failures are counted in the shared {@link LockoutStore}; locks are mirrored
+ * into a local, bounded cache refreshed every {@code auth.lockout.sync-interval},
+ * so a successful login never touches the store unless this instance has
+ * itself recorded failures for that user. A lock taken on another instance
+ * becomes visible here within one sync interval, or at once on the next
+ * failure recorded here.
+ */
 @Service
 public class AccountLockoutService {
-    private final ConcurrentHashMap<String, FailedLoginAttempts> failedAttempts = new ConcurrentHashMap<>();
-    
-    private static final int MAX_ATTEMPTS = 5;
-    private static final long LOCKOUT_DURATION_MINUTES = 30;
+    private static final Logger logger = LoggerFactory.getLogger(AccountLockoutService.class);
 
-    public void recordFailedAttempt(String username) {
-        failedAttempts.compute(username, (key, attempts) -> {
-            if (attempts == null) {
-                return new FailedLoginAttempts(1, System.currentTimeMillis());
-            }
-            
-            if (System.currentTimeMillis() - attempts.getLastAttemptTime() > TimeUnit.MINUTES.toMillis(LOCKOUT_DURATION_MINUTES)) {
-                return new FailedLoginAttempts(1, System.currentTimeMillis());
-            }
-            
-            attempts.incrementAttempts();
-            attempts.setLastAttemptTime(System.currentTimeMillis());
-            return attempts;
-        });
-    }
+    private final LockoutStore store;
+    private final LockoutProperties properties;
+    private final Cache<String, Instant> locks;
+    private final Cache<String, Boolean> recentFailures;
 
-    public void resetFailedAttempts(String username) {
-        failedAttempts.remove(username);
+    public AccountLockoutService(LockoutStore store, LockoutProperties properties) {
+        this.store = store;
+        this.properties = properties;
+        this.locks = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedUsers())
+                .expireAfter(new UntilDeadline<Instant>(lockedUntil -> lockedUntil))
+                .build();
+        this.recentFailures = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedUsers())
+                .expireAfterWrite(properties.getWindow().multipliedBy(2))
+                .build();
     }
 
-    public boolean isAccountLocked(String username) {
-        FailedLoginAttempts attempts = failedAttempts.get(username);
-        if (attempts == null) {
+    /**
+     * Records a failed login. Returns true when this attempt locked the account.
+     */
+    public boolean recordFailedAttempt(String username) {
+        Instant now = Instant.now();
+        try {
+            recentFailures.put(username, Boolean.TRUE);
+            double failures = store.recordFailure(username, now);
+            if (failures < properties.getMaxAttempts() || isAccountLocked(username)) {
+                return false;
+            }
+
+            Instant lockedUntil = now.plus(properties.getDuration());
+            store.lock(username, lockedUntil);
+            locks.put(username, lockedUntil);
+            return true;
+        } catch (DataAccessException e) {
+            logger.warn("Could not record failed login for {}: {}", username, e.getMessage());
             return false;
         }
+    }
 
-        if (System.currentTimeMillis() - attempts.getLastAttemptTime() > TimeUnit.MINUTES.toMillis(LOCKOUT_DURATION_MINUTES)) {
-            failedAttempts.remove(username);
-            return false;
+    public void resetFailedAttempts(String username) {
+        if (recentFailures.getIfPresent(username) == null) {
+            return;
         }
+        recentFailures.invalidate(username);
+        try {
+            store.clear(username);
+        } catch (DataAccessException e) {
+            logger.warn("Could not reset failed logins for {}: {}", username, e.getMessage());
+        }
+    }
 
-        return attempts.getAttempts() >= MAX_ATTEMPTS;
+    public boolean isAccountLocked(String username) {
+        Instant lockedUntil = locks.getIfPresent(username);
+        return lockedUntil != null && lockedUntil.isAfter(Instant.now());
     }
 
     public long getRemainingLockoutTime(String username) {
-        FailedLoginAttempts attempts = failedAttempts.get(username);
-        if (attempts == null || attempts.getAttempts() < MAX_ATTEMPTS) {
+        Instant lockedUntil = locks.getIfPresent(username);
+        if (lockedUntil == null) {
             return 0;
         }
-
-        long elapsedTime = System.currentTimeMillis() - attempts.getLastAttemptTime();
-        long remainingTime = TimeUnit.MINUTES.toMillis(LOCKOUT_DURATION_MINUTES) - elapsedTime;
-        return Math.max(0, TimeUnit.MILLISECONDS.toMinutes(remainingTime));
+        long remainingMillis = Duration.between(Instant.now(), lockedUntil).toMillis();
+        return Math.max(0, (remainingMillis + 59_999) / 60_000);
     }
 
-    private static class FailedLoginAttempts {
-        private int attempts;
-        private long lastAttemptTime;
-
-        public FailedLoginAttempts(int attempts, long lastAttemptTime) {
-            this.attempts = attempts;
-            this.lastAttemptTime = lastAttemptTime;
+    @Scheduled(fixedDelayString = "#{@lockoutProperties.syncInterval.toMillis()}")
+    public void syncLocks() {
+        if (store instanceof InMemoryLockoutStore) {
+            return;
         }
-
-        public int getAttempts() {
-            return attempts;
-        }
-
-        public void incrementAttempts() {
-            this.attempts++;
-        }
-
-        public long getLastAttemptTime() {
-            return lastAttemptTime;
+        try {
+            store.activeLocks(Instant.now()).forEach(locks::put);
+        } catch (DataAccessException e) {
+            logger.warn("Could not sync account locks: {}", e.getMessage());
         }
+    }
 
-        public void setLastAttemptTime(long lastAttemptTime) {
-            this.lastAttemptTime = lastAttemptTime;
+    @Scheduled(fixedDelayString = "#{@lockoutProperties.purgeInterval.toMillis()}")
+    public void purgeExpired() {
+        try {
+            store.purgeExpired(Instant.now());
+        } catch (DataAccessException e) {
+            logger.warn("Could not purge expired login failures: {}", e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
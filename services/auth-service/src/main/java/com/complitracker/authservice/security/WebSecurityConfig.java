@@ -1,6 +1,7 @@
 package com.complitracker.authservice.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,6 +18,8 @@ import org.springframework.security.web.firewall.StrictHttpFirewall;
 import org.springframework.security.web.firewall.HttpFirewall;
 
 import com.complitracker.authservice.security.jwt.AuthEntryPointJwt;
+import com.complitracker.authservice.security.hashing.BoundedPasswordEncoder;
+import com.complitracker.authservice.security.hashing.PasswordHashingExecutor;
 import com.complitracker.authservice.security.jwt.AuthTokenFilter;
 import com.complitracker.authservice.security.services.UserDetailsServiceImpl;
 
@@ -33,6 +36,12 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     private AccountLockoutService accountLockoutService;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Value("${auth.password-hashing.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -51,7 +60,7 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), passwordHashingExecutor);
     }
 
     @Bean
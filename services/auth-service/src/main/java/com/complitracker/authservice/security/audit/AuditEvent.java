@@ -0,0 +1,14 @@
+package com.complitracker.authservice.security.audit;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class AuditEvent {
+    String eventType;
+    String username;
+    String provider;
+    String message;
+    LocalDateTime timestamp;
+}
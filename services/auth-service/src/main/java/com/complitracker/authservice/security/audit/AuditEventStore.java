@@ -0,0 +1,85 @@
+package com.complitracker.authservice.security.audit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only audit table. Rows are only ever inserted, in batches by the
+ * {@link SecurityAuditService} writer, and read back newest first through the
+ * {@code (username, occurred_at)} and {@code (occurred_at)} indexes. Values
+ * longer than their column are cut to fit, so an oversized field cannot fail
+ * the batch it travels in.
+ */
+@Component
+public class AuditEventStore {
+    private static final int MAX_EVENT_TYPE_LENGTH = 50;
+    private static final int MAX_USERNAME_LENGTH = 100;
+    private static final int MAX_PROVIDER_LENGTH = 50;
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private static final RowMapper<AuditEvent> ROW_MAPPER = (rs, rowNum) -> new AuditEvent(
+            rs.getString("event_type"),
+            rs.getString("username"),
+            rs.getString("provider"),
+            rs.getString("message"),
+            rs.getTimestamp("occurred_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditEventStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the events in one transaction: if any row fails, none of them
+     * is written.
+     */
+    @Transactional
+    public void appendAll(List<AuditEvent> events) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO security_audit_events (event_type, username, provider, message, occurred_at) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                events,
+                events.size(),
+                (ps, event) -> {
+                    ps.setString(1, truncate(event.getEventType(), MAX_EVENT_TYPE_LENGTH));
+                    ps.setString(2, truncate(event.getUsername(), MAX_USERNAME_LENGTH));
+                    ps.setString(3, truncate(event.getProvider(), MAX_PROVIDER_LENGTH));
+                    ps.setString(4, truncate(event.getMessage(), MAX_MESSAGE_LENGTH));
+                    ps.setTimestamp(5, Timestamp.valueOf(event.getTimestamp()));
+                });
+    }
+
+    /**
+     * Events in {@code [from, to)}, newest first. A null username matches
+     * every user.
+     */
+    public List<AuditEvent> find(String username, LocalDateTime from, LocalDateTime to, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT event_type, username, provider, message, occurred_at FROM security_audit_events "
+                        + "WHERE occurred_at >= ? AND occurred_at < ?");
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(from));
+        args.add(Timestamp.valueOf(to));
+        if (username != null) {
+            sql.append(" AND username = ?");
+            args.add(username);
+        }
+        sql.append(" ORDER BY occurred_at DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength
+                ? value.substring(0, maxLength)
+                : value;
+    }
+}
@@ -2,16 +2,72 @@ package com.complitracker.authservice.security.audit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Records security events without making the caller wait on I/O. Events go
+ * into a bounded queue that any request thread may offer to; a single writer
+ * thread drains it and appends to {@link AuditEventStore} in batches of up to
+ * {@code auth.audit.batch-size}. When the queue is full the event is dropped
+ * and counted rather than blocking a login. Whatever is queued at shutdown is
+ * written before the context closes. A batch the database rejects is retried
+ * one event at a time, so a bad row costs only itself. The audit log line for
+ * each event is also written by the writer thread, not the request thread.
+ */
 @Service
 public class SecurityAuditService {
     private static final Logger logger = LoggerFactory.getLogger(SecurityAuditService.class);
-    private final Map<String, AuditEvent> auditEvents = new ConcurrentHashMap<>();
+    private static final Duration IDLE_POLL = Duration.ofSeconds(1);
+
+    private final AuditEventStore store;
+    private final BlockingQueue<AuditEvent> queue;
+    private final int batchSize;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public SecurityAuditService(
+            AuditEventStore store,
+            @Value("${auth.audit.queue-capacity:10000}") int queueCapacity,
+            @Value("${auth.audit.batch-size:500}") int batchSize) {
+        this.store = store;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "security-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(IDLE_POLL.toMillis() + TimeUnit.SECONDS.toMillis(10));
+        flush(new ArrayList<>(batchSize));
+    }
 
     public void logAuthenticationSuccess(String username, String provider) {
         AuditEvent event = new AuditEvent(
@@ -57,6 +113,17 @@ public class SecurityAuditService {
         logEvent(event);
     }
 
+    public void logRefreshTokenReuse(String username) {
+        AuditEvent event = new AuditEvent(
+            "REFRESH_TOKEN_REUSE",
+            username,
+            "system",
+            "A rotated refresh token was presented again; all sessions revoked",
+            LocalDateTime.now()
+        );
+        logEvent(event);
+    }
+
     public void logRoleChange(String username, String role, String action) {
         AuditEvent event = new AuditEvent(
             "ROLE_CHANGE",
@@ -79,34 +146,91 @@ public class SecurityAuditService {
         logEvent(event);
     }
 
+    public void logBulkProvisioning(String username, Map<?, Integer> counts) {
+        AuditEvent event = new AuditEvent(
+            "BULK_PROVISIONING",
+            username,
+            "system",
+            "Bulk user provisioning: " + counts,
+            LocalDateTime.now()
+        );
+        logEvent(event);
+    }
+
+    public List<AuditEvent> findEvents(String username, LocalDateTime from, LocalDateTime to, int limit) {
+        return store.find(username, from, to, limit);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("queued", queue.size());
+        response.put("written", written.get());
+        response.put("dropped", dropped.get());
+        response.put("failed", failed.get());
+        return response;
+    }
+
     private void logEvent(AuditEvent event) {
-        auditEvents.put(event.getTimestamp().toString() + "-" + event.getUsername(), event);
-        logger.info("Security Audit: {} - {} - {} - {}",
-            event.getEventType(),
-            event.getUsername(),
-            event.getMessage(),
-            event.getTimestamp());
-    }
-
-    private static class AuditEvent {
-        private final String eventType;
-        private final String username;
-        private final String provider;
-        private final String message;
-        private final LocalDateTime timestamp;
-
-        public AuditEvent(String eventType, String username, String provider, String message, LocalDateTime timestamp) {
-            this.eventType = eventType;
-            this.username = username;
-            this.provider = provider;
-            this.message = message;
-            this.timestamp = timestamp;
+        if (!queue.offer(event)) {
+            dropped.incrementAndGet();
+            logger.debug("Dropped security audit event: {} - {}", event.getEventType(), event.getUsername());
+        }
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AuditEvent first = queue.poll(IDLE_POLL.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        if (logger.isInfoEnabled()) {
+            batch.forEach(event -> logger.info("Security Audit: {} - {} - {} - {}",
+                event.getEventType(),
+                event.getUsername(),
+                event.getMessage(),
+                event.getTimestamp()));
+        }
+        try {
+            store.appendAll(batch);
+            written.addAndGet(batch.size());
+        } catch (DataAccessException e) {
+            logger.warn("Could not write {} audit events as a batch, retrying one by one: {}",
+                batch.size(), e.getMessage());
+            writeEach(batch);
+        } finally {
+            batch.clear();
         }
+    }
 
-        public String getEventType() { return eventType; }
-        public String getUsername() { return username; }
-        public String getProvider() { return provider; }
-        public String getMessage() { return message; }
-        public LocalDateTime getTimestamp() { return timestamp; }
+    private void writeEach(List<AuditEvent> batch) {
+        for (AuditEvent event : batch) {
+            try {
+                store.appendAll(List.of(event));
+                written.incrementAndGet();
+            } catch (DataAccessException e) {
+                failed.incrementAndGet();
+                logger.error("Could not write audit event {} - {}: {}",
+                    event.getEventType(), event.getUsername(), e.getMessage());
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,129 @@
+package com.complitracker.authservice.security.hashing;
+
+import com.complitracker.authservice.exception.PasswordHashingUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed pool that runs every BCrypt hash and verification, so a login storm
+ * occupies at most {@code threads} cores and {@code queue-capacity} waiting
+ * request threads. Anything beyond that is rejected at once with
+ * {@link PasswordHashingUnavailableException} instead of holding a servlet
+ * thread, which keeps the rest of the API responsive.
+ */
+@Component
+public class PasswordHashingExecutor {
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public PasswordHashingExecutor(
+            @Value("${auth.password-hashing.threads:0}") int threads,
+            @Value("${auth.password-hashing.queue-capacity:32}") int queueCapacity,
+            @Value("${auth.password-hashing.timeout:5s}") Duration timeout) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+    }
+
+    /**
+     * Runs the hashing task on the pool and waits for its result.
+     */
+    public <T> T execute(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitNanos.add(startedAt - submittedAt);
+                try {
+                    return task.call();
+                } finally {
+                    recordHash(System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingUnavailableException("Password hashing is at capacity, try again shortly");
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new PasswordHashingUnavailableException("Password hashing timed out, try again shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long count = completed.sum();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("poolSize", executor.getCorePoolSize());
+        response.put("activeThreads", executor.getActiveCount());
+        response.put("queueDepth", executor.getQueue().size());
+        response.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        response.put("completed", count);
+        response.put("rejected", rejected.sum());
+        response.put("timedOut", timedOut.sum());
+        response.put("averageHashMillis", count == 0 ? 0 : hashNanos.sum() / count / 1_000_000.0);
+        response.put("maxHashMillis", maxHashNanos.get() / 1_000_000.0);
+        response.put("averageQueueWaitMillis", count == 0 ? 0 : queueWaitNanos.sum() / count / 1_000_000.0);
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void recordHash(long nanos) {
+        completed.increment();
+        hashNanos.add(nanos);
+        maxHashNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
@@ -1,5 +1,7 @@
 package com.complitracker.authservice.security.jwt;
 
+import com.complitracker.authservice.security.services.PrincipalCache;
+import com.complitracker.authservice.security.services.UserDetailsImpl;
 import com.complitracker.authservice.security.services.UserDetailsServiceImpl;
 
 import io.jsonwebtoken.Claims;
@@ -7,6 +9,7 @@ import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -28,6 +31,15 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Value("${auth.stateless:false}")
+    private boolean statelessAuthentication;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -59,12 +71,10 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             logger.info("Processing request through JWT filter: {} {}", method, path);
             
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                Claims claims = jwtUtils.getAllClaimsFromToken(jwt);
+            Claims claims = jwt != null ? jwtUtils.getValidatedClaims(jwt) : null;
+            if (claims != null && !JwtUtils.isRefreshToken(claims) && !tokenRevocationService.isRevoked(claims)) {
                 List<String> roles = claims.get("roles", List.class);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = loadPrincipal(claims, roles);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, roles, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -78,6 +88,19 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * In stateless mode the principal comes straight from the verified claims;
+     * tokens issued before the id claim existed fall back to the user lookup.
+     */
+    private UserDetails loadPrincipal(Claims claims, List<String> roles) {
+        Number id = claims.get("id", Number.class);
+        if (statelessAuthentication && id != null && roles != null) {
+            return UserDetailsImpl.fromToken(id.longValue(), claims.getSubject(), roles);
+        }
+        return principalCache.get(claims.getSubject(),
+                email -> (UserDetailsImpl) userDetailsService.loadUserByUsername(email));
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
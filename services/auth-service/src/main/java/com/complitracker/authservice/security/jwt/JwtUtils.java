@@ -8,13 +8,31 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    /**
+     * Issue time in milliseconds. {@code iat} only has second precision, which
+     * is too coarse to tell a token issued just after a revocation from one
+     * issued just before it; see {@link TokenRevocationService}.
+     */
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
+    /**
+     * {@link #ACCESS_TOKEN} or {@link #REFRESH_TOKEN}, so a refresh token can
+     * not be presented as a bearer token and an access token can not be
+     * exchanged at {@code /refreshtoken}.
+     */
+    public static final String TOKEN_TYPE_CLAIM = "token_type";
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -28,50 +46,111 @@ public class JwtUtils {
     @Value("${jwt.refresh-expiration}")
     private int refreshExpirationMs;
 
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        jwtParser = Jwts.parserBuilder().setSigningKey(getSigningKey()).build();
+    }
+
     public String generateJwtToken(Authentication authentication) {
-        UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+        return generateJwtToken((UserDetailsImpl) authentication.getPrincipal());
+    }
 
+    /**
+     * Access token carrying everything needed to authenticate a request without
+     * a user lookup: subject (email), user id, roles, and a unique jti so the
+     * token can be revoked individually.
+     */
+    public String generateJwtToken(UserDetailsImpl userPrincipal) {
+        Date now = new Date();
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userPrincipal.getUsername())
+                .claim(TOKEN_TYPE_CLAIM, ACCESS_TOKEN)
+                .claim("id", userPrincipal.getId())
                 .claim("roles", userPrincipal.getAuthorities().stream()
                         .map(authority -> authority.getAuthority())
                         .collect(java.util.stream.Collectors.toList()))
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
+                .setIssuedAt(now)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now.getTime())
+                .setExpiration(new Date(now.getTime() + jwtExpirationMs))
                 .signWith(SignatureAlgorithm.HS512, getSigningKey())
                 .compact();
     }
 
     public String generateJwtToken(String username) {
+        Date now = new Date();
         return Jwts.builder()
                 .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
+                .claim(TOKEN_TYPE_CLAIM, ACCESS_TOKEN)
+                .setIssuedAt(now)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now.getTime())
+                .setExpiration(new Date(now.getTime() + jwtExpirationMs))
                 .signWith(SignatureAlgorithm.HS512, getSigningKey())
                 .compact();
     }
 
     public String generateRefreshToken(String username) {
+        return generateRefreshToken(username, UUID.randomUUID(), getRefreshTokenExpiry());
+    }
+
+    /**
+     * Refresh token whose jti is the id of its {@code user_tokens} row, see
+     * {@link RefreshTokenService}.
+     */
+    public String generateRefreshToken(String username, UUID tokenId, Date expiresAt) {
+        Date now = new Date();
         return Jwts.builder()
+                .setId(tokenId.toString())
                 .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + refreshExpirationMs))
+                .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN)
+                .setIssuedAt(now)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now.getTime())
+                .setExpiration(expiresAt)
                 .signWith(SignatureAlgorithm.HS512, getSigningKey())
                 .compact();
     }
 
+    public long getRefreshExpirationMs() {
+        return refreshExpirationMs;
+    }
+
+    public Date getRefreshTokenExpiry() {
+        return new Date((new Date()).getTime() + refreshExpirationMs);
+    }
+
+    /**
+     * True for refresh tokens, including those issued before the token type
+     * claim existed: a jti but no roles.
+     */
+    public static boolean isRefreshToken(Claims claims) {
+        String type = claims.get(TOKEN_TYPE_CLAIM, String.class);
+        if (type != null) {
+            return REFRESH_TOKEN.equals(type);
+        }
+        return claims.getId() != null && claims.get("roles") == null;
+    }
+
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser().setSigningKey(getSigningKey()).parseClaimsJws(token).getBody().getSubject();
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser().setSigningKey(getSigningKey()).parseClaimsJws(token).getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     public boolean validateJwtToken(String authToken) {
+        return getValidatedClaims(authToken) != null;
+    }
+
+    /**
+     * Verifies the token once and returns its claims, or null (after logging the
+     * reason) when it is invalid or expired.
+     */
+    public Claims getValidatedClaims(String authToken) {
         try {
-            Jwts.parser().setSigningKey(getSigningKey()).parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (SignatureException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -84,6 +163,6 @@ public class JwtUtils {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        return null;
     }
-}
\ No newline at end of file
+}
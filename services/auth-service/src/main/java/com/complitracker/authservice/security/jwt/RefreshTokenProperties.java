@@ -0,0 +1,31 @@
+package com.complitracker.authservice.security.jwt;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.refresh-token")
+public class RefreshTokenProperties {
+    /**
+     * Refreshes expected per day. Every refresh revokes the presented token,
+     * which then stays in the revoked set until it expires, so the Bloom
+     * filter is sized for this many per day of refresh-token lifetime.
+     */
+    private long expectedRefreshesPerDay = 50_000;
+    /**
+     * Revoked, unexpired refresh tokens the Bloom filter is sized for,
+     * overriding the size derived from {@code expectedRefreshesPerDay}; 0
+     * derives it.
+     */
+    private long expectedRevocations = 0;
+    /** False-positive rate of the Bloom filter at that size. */
+    private double falsePositiveRate = 0.01;
+    /** How often revocations made by other instances are pulled from user_tokens. */
+    private Duration syncInterval = Duration.ofSeconds(5);
+    /** How often expired tokens are deleted and the Bloom filter rebuilt. */
+    private Duration purgeInterval = Duration.ofHours(1);
+}
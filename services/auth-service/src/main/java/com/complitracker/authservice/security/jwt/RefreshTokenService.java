@@ -0,0 +1,281 @@
+package com.complitracker.authservice.security.jwt;
+
+import com.complitracker.authservice.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and rotates refresh tokens, one {@code user_tokens} row each (type
+ * {@code REFRESH}, id = the token's jti, token = SHA-256 of the JWT).
+ *
+ * Every refresh revokes the presented token and issues a new one. Presenting
+ * a token that was already rotated or revoked is treated as theft: every
+ * active refresh token of that user is revoked, along with their access
+ * tokens.
+ *
+ * Revoked ids are held in memory as an exact map behind a Bloom filter, so the
+ * usual "not revoked" answer costs a few bit reads. The map is loaded at
+ * startup, updated on every revocation made here, and pulled from the table
+ * every {@code sync-interval} for revocations made by other instances. The
+ * conditional update that marks a token rotated still guards against two
+ * instances accepting the same token in the same interval.
+ *
+ * The filter is sized for {@code expected-refreshes-per-day} times the
+ * refresh-token lifetime. Past that its false-positive rate climbs, which
+ * only costs map lookups, but {@link #stats()} reports the fill and a warning
+ * is logged so the setting can be raised.
+ */
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final String TOKEN_TYPE = "REFRESH";
+
+    public enum Rotation {
+        /** The token was valid and is now revoked; issue its successor. */
+        ROTATED,
+        /** The token had already been used or revoked. */
+        REUSED,
+        /** The token was not issued by this store. */
+        UNKNOWN
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JwtUtils jwtUtils;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenProperties properties;
+    private final long expectedRevocations;
+
+    private final Map<UUID, Long> revokedTokens = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public RefreshTokenService(
+            JdbcTemplate jdbcTemplate,
+            JwtUtils jwtUtils,
+            TokenRevocationService tokenRevocationService,
+            RefreshTokenProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jwtUtils = jwtUtils;
+        this.tokenRevocationService = tokenRevocationService;
+        this.properties = properties;
+        this.expectedRevocations = expectedRevocations(properties, jwtUtils.getRefreshExpirationMs());
+        this.bloomFilter = newBloomFilter();
+    }
+
+    @PostConstruct
+    public void loadRevokedTokens() {
+        Instant syncedAt = Instant.now();
+        jdbcTemplate.query(
+                "SELECT id, expires_at FROM user_tokens "
+                        + "WHERE token_type = ? AND revoked_at IS NOT NULL AND expires_at > ?",
+                rs -> {
+                    markRevoked(rs.getObject("id", UUID.class), rs.getTimestamp("expires_at").getTime());
+                },
+                TOKEN_TYPE, Timestamp.from(syncedAt));
+        lastSync = syncedAt;
+        logger.info("Loaded {} revoked refresh tokens; Bloom filter sized for {}",
+                revokedTokens.size(), expectedRevocations);
+        warnIfOverCapacity();
+    }
+
+    public String issue(UserDetailsImpl user) {
+        UUID tokenId = UUID.randomUUID();
+        Date expiresAt = jwtUtils.getRefreshTokenExpiry();
+        String token = jwtUtils.generateRefreshToken(user.getUsername(), tokenId, expiresAt);
+        jdbcTemplate.update(
+                "INSERT INTO user_tokens (id, user_id, token, token_type, expires_at, created_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                tokenId, user.getId(), digest(token), TOKEN_TYPE,
+                new Timestamp(expiresAt.getTime()), Timestamp.from(Instant.now()));
+        return token;
+    }
+
+    /**
+     * Revokes a signature-valid refresh token so its successor can be issued.
+     */
+    public Rotation rotate(Claims claims) {
+        UUID tokenId = parseTokenId(claims);
+        if (tokenId == null) {
+            return Rotation.UNKNOWN;
+        }
+        if (isRevoked(tokenId)) {
+            revokeFamily(tokenId, claims.getSubject());
+            return Rotation.REUSED;
+        }
+
+        int updated = jdbcTemplate.update(
+                "UPDATE user_tokens SET revoked_at = ? WHERE id = ? AND token_type = ? AND revoked_at IS NULL",
+                Timestamp.from(Instant.now()), tokenId, TOKEN_TYPE);
+        if (updated == 1) {
+            markRevoked(tokenId, claims.getExpiration().getTime());
+            return Rotation.ROTATED;
+        }
+
+        // Not revoked as far as this instance knows: either another instance
+        // rotated it within the last sync interval, or it was never issued.
+        List<Boolean> known = jdbcTemplate.queryForList(
+                "SELECT revoked_at IS NOT NULL FROM user_tokens WHERE id = ? AND token_type = ?",
+                Boolean.class, tokenId, TOKEN_TYPE);
+        if (known.isEmpty()) {
+            return Rotation.UNKNOWN;
+        }
+        revokeFamily(tokenId, claims.getSubject());
+        return Rotation.REUSED;
+    }
+
+    /** Revokes a refresh token without issuing a successor (logout). */
+    public void revoke(Claims claims) {
+        UUID tokenId = parseTokenId(claims);
+        if (tokenId == null || isRevoked(tokenId)) {
+            return;
+        }
+        jdbcTemplate.update(
+                "UPDATE user_tokens SET revoked_at = ? WHERE id = ? AND token_type = ? AND revoked_at IS NULL",
+                Timestamp.from(Instant.now()), tokenId, TOKEN_TYPE);
+        markRevoked(tokenId, claims.getExpiration().getTime());
+    }
+
+    public boolean isRevoked(UUID tokenId) {
+        return bloomFilter.mightContain(tokenId) && revokedTokens.containsKey(tokenId);
+    }
+
+    public Map<String, Object> stats() {
+        int revoked = revokedTokens.size();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("revoked", revoked);
+        response.put("expectedRevocations", expectedRevocations);
+        response.put("fillRatio", (double) revoked / expectedRevocations);
+        response.put("falsePositiveRate", properties.getFalsePositiveRate());
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "#{@refreshTokenProperties.syncInterval.toMillis()}")
+    public void syncRevocations() {
+        Instant syncedAt = Instant.now();
+        // overlap by one interval so rows committed late by another instance are not missed
+        Instant since = lastSync.minus(properties.getSyncInterval());
+        try {
+            jdbcTemplate.query(
+                    "SELECT id, expires_at FROM user_tokens WHERE token_type = ? AND revoked_at >= ?",
+                    rs -> {
+                        markRevoked(rs.getObject("id", UUID.class), rs.getTimestamp("expires_at").getTime());
+                    },
+                    TOKEN_TYPE, Timestamp.from(since));
+            lastSync = syncedAt;
+        } catch (DataAccessException e) {
+            logger.warn("Could not sync refresh token revocations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes expired refresh tokens and rebuilds the Bloom filter from the
+     * revoked tokens still live, since a Bloom filter cannot forget.
+     */
+    @Scheduled(fixedDelayString = "#{@refreshTokenProperties.purgeInterval.toMillis()}",
+            initialDelayString = "#{@refreshTokenProperties.purgeInterval.toMillis()}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+
+        BloomFilter rebuilt = newBloomFilter();
+        revokedTokens.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+        // ids revoked while the new filter was being filled
+        revokedTokens.keySet().forEach(rebuilt::put);
+        warnIfOverCapacity();
+
+        try {
+            jdbcTemplate.update("DELETE FROM user_tokens WHERE token_type = ? AND expires_at <= ?",
+                    TOKEN_TYPE, new Timestamp(now));
+        } catch (DataAccessException e) {
+            logger.warn("Could not delete expired refresh tokens: {}", e.getMessage());
+        }
+    }
+
+    private void revokeFamily(UUID tokenId, String username) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Map<String, Object>> active = jdbcTemplate.queryForList(
+                "SELECT id, expires_at FROM user_tokens WHERE token_type = ? AND revoked_at IS NULL "
+                        + "AND user_id = (SELECT user_id FROM user_tokens WHERE id = ?)",
+                TOKEN_TYPE, tokenId);
+        jdbcTemplate.update(
+                "UPDATE user_tokens SET revoked_at = ? WHERE token_type = ? AND revoked_at IS NULL "
+                        + "AND user_id = (SELECT user_id FROM user_tokens WHERE id = ?)",
+                now, TOKEN_TYPE, tokenId);
+        active.forEach(row -> markRevoked(
+                (UUID) row.get("id"), ((Timestamp) row.get("expires_at")).getTime()));
+        tokenRevocationService.revokeAllForUser(username);
+        logger.warn("Refresh token {} was reused; revoked {} active refresh tokens of {}",
+                tokenId, active.size(), username);
+    }
+
+    private void markRevoked(UUID tokenId, long expiresAtMillis) {
+        revokedTokens.put(tokenId, expiresAtMillis);
+        bloomFilter.put(tokenId);
+    }
+
+    private BloomFilter newBloomFilter() {
+        return new BloomFilter(expectedRevocations, properties.getFalsePositiveRate());
+    }
+
+    private void warnIfOverCapacity() {
+        int revoked = revokedTokens.size();
+        if (revoked > expectedRevocations) {
+            logger.warn("{} revoked refresh tokens exceed the {} the Bloom filter is sized for; "
+                    + "raise auth.refresh-token.expected-refreshes-per-day", revoked, expectedRevocations);
+        }
+    }
+
+    /** Every refresh leaves one revoked token behind for up to a token lifetime. */
+    static long expectedRevocations(RefreshTokenProperties properties, long refreshLifetimeMs) {
+        if (properties.getExpectedRevocations() > 0) {
+            return properties.getExpectedRevocations();
+        }
+        double lifetimeDays = (double) refreshLifetimeMs / TimeUnit.DAYS.toMillis(1);
+        return Math.max(1, (long) Math.ceil(properties.getExpectedRefreshesPerDay() * lifetimeDays));
+    }
+
+    private static UUID parseTokenId(Claims claims) {
+        if (claims.getId() == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(claims.getId());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
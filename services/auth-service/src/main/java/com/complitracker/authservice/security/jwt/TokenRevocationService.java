@@ -0,0 +1,102 @@
+package com.complitracker.authservice.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revocation list checked on every authenticated request. Holds two kinds of
+ * entries, each kept only as long as the tokens it applies to can still be
+ * valid:
+ * <ul>
+ *     <li>single tokens by jti (logout), until the token's own expiry;</li>
+ *     <li>a per-user cutoff (roles or password changed), rejecting every token
+ *     for that user issued up to it, for one access-token lifetime.</li>
+ * </ul>
+ * The cutoff is compared with the millisecond issue time in
+ * {@link JwtUtils#ISSUED_AT_MILLIS_CLAIM}, so a token issued right after a
+ * revocation, such as the login that follows a password change, stays valid.
+ * Tokens without that claim fall back to {@code iat} and are treated as
+ * issued at the end of its second.
+ * The list lives in this instance's memory.
+ */
+@Service
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final Cache<String, Long> revokedTokens;
+    private final Cache<String, Long> userCutoffs;
+
+    public TokenRevocationService(
+            @Value("${jwt.expiration}") long jwtExpirationMs,
+            @Value("${auth.revocation.max-size:100000}") long maxSize) {
+        this.revokedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiry())
+                .build();
+        this.userCutoffs = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(jwtExpirationMs))
+                .build();
+    }
+
+    public void revokeToken(Claims claims) {
+        if (claims.getId() != null && claims.getExpiration() != null) {
+            revokedTokens.put(claims.getId(), claims.getExpiration().getTime());
+        }
+    }
+
+    /** Rejects every token for this user issued up to now. */
+    public void revokeAllForUser(String email) {
+        userCutoffs.put(email, System.currentTimeMillis());
+        logger.info("Revoked outstanding tokens for user {}", email);
+    }
+
+    public boolean isRevoked(Claims claims) {
+        if (claims.getId() != null && revokedTokens.getIfPresent(claims.getId()) != null) {
+            return true;
+        }
+        Long cutoff = userCutoffs.getIfPresent(claims.getSubject());
+        if (cutoff == null) {
+            return false;
+        }
+        Long issuedAt = issuedAtMillis(claims);
+        return issuedAt == null || issuedAt <= cutoff;
+    }
+
+    private static Long issuedAtMillis(Claims claims) {
+        Number issuedAtMillis = claims.get(JwtUtils.ISSUED_AT_MILLIS_CLAIM, Number.class);
+        if (issuedAtMillis != null) {
+            return issuedAtMillis.longValue();
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt != null ? issuedAt.getTime() + 999 : null;
+    }
+
+    private static class UntilExpiry implements Expiry<String, Long> {
+        @Override
+        public long expireAfterCreate(String jti, Long expiresAtMillis, long currentTime) {
+            long remainingMillis = expiresAtMillis - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String jti, Long expiresAtMillis, long currentTime, long currentDuration) {
+            return expireAfterCreate(jti, expiresAtMillis, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String jti, Long expiresAtMillis, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
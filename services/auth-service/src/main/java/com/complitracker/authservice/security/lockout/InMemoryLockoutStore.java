@@ -0,0 +1,69 @@
+package com.complitracker.authservice.security.lockout;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Store for a single instance and for tests. Both maps are capped at
+ * {@code maxTrackedUsers} and every entry carries its own deadline, which
+ * Caffeine expires through its timer wheel, so stale usernames leave without
+ * anyone having to look them up again.
+ */
+public class InMemoryLockoutStore implements LockoutStore {
+    private final Duration window;
+    private final Cache<String, SlidingWindow> failures;
+    private final Cache<String, Instant> locks;
+
+    public InMemoryLockoutStore(Duration window, long maxTrackedUsers) {
+        this.window = window;
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(maxTrackedUsers)
+                .expireAfter(new UntilDeadline<SlidingWindow>(counter -> counter.expiresAt(window)))
+                .build();
+        this.locks = Caffeine.newBuilder()
+                .maximumSize(maxTrackedUsers)
+                .expireAfter(new UntilDeadline<Instant>(lockedUntil -> lockedUntil))
+                .build();
+    }
+
+    @Override
+    public double recordFailure(String username, Instant now) {
+        SlidingWindow counter = failures.asMap().compute(username, (key, existing) -> existing == null
+                ? new SlidingWindow(SlidingWindow.windowIndex(now, window), 0, 1)
+                : existing.increment(now, window));
+        return counter.estimate(now, window);
+    }
+
+    @Override
+    public void lock(String username, Instant lockedUntil) {
+        locks.put(username, lockedUntil);
+    }
+
+    @Override
+    public Map<String, Instant> activeLocks(Instant now) {
+        Map<String, Instant> active = new HashMap<>();
+        locks.asMap().forEach((username, lockedUntil) -> {
+            if (lockedUntil.isAfter(now)) {
+                active.put(username, lockedUntil);
+            }
+        });
+        return active;
+    }
+
+    @Override
+    public void clear(String username) {
+        failures.invalidate(username);
+        locks.invalidate(username);
+    }
+
+    @Override
+    public void purgeExpired(Instant now) {
+        failures.cleanUp();
+        locks.cleanUp();
+    }
+}
@@ -0,0 +1,77 @@
+package com.complitracker.authservice.security.lockout;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Store on the service's Postgres database, so that failures counted and
+ * locks taken by one instance apply to all of them. Failures are kept as one
+ * row per user and fixed window; rows older than the previous window are
+ * removed by {@link #purgeExpired(Instant)}.
+ */
+public class JdbcLockoutStore implements LockoutStore {
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration window;
+
+    public JdbcLockoutStore(JdbcTemplate jdbcTemplate, Duration window) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.window = window;
+    }
+
+    @Override
+    public double recordFailure(String username, Instant now) {
+        long index = SlidingWindow.windowIndex(now, window);
+        jdbcTemplate.update(
+                "INSERT INTO login_failures (username, window_index, failures) VALUES (?, ?, 1) "
+                        + "ON CONFLICT (username, window_index) "
+                        + "DO UPDATE SET failures = login_failures.failures + 1",
+                username, index);
+
+        int[] counts = new int[2];
+        jdbcTemplate.query(
+                "SELECT window_index, failures FROM login_failures WHERE username = ? AND window_index >= ?",
+                rs -> {
+                    counts[rs.getLong("window_index") == index ? 1 : 0] = rs.getInt("failures");
+                },
+                username, index - 1);
+        return SlidingWindow.estimate(counts[0], counts[1], now, window);
+    }
+
+    @Override
+    public void lock(String username, Instant lockedUntil) {
+        jdbcTemplate.update(
+                "INSERT INTO account_lockouts (username, locked_until) VALUES (?, ?) "
+                        + "ON CONFLICT (username) DO UPDATE SET locked_until = EXCLUDED.locked_until",
+                username, Timestamp.from(lockedUntil));
+    }
+
+    @Override
+    public Map<String, Instant> activeLocks(Instant now) {
+        Map<String, Instant> active = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT username, locked_until FROM account_lockouts WHERE locked_until > ?",
+                rs -> {
+                    active.put(rs.getString("username"), rs.getTimestamp("locked_until").toInstant());
+                },
+                Timestamp.from(now));
+        return active;
+    }
+
+    @Override
+    public void clear(String username) {
+        jdbcTemplate.update("DELETE FROM login_failures WHERE username = ?", username);
+        jdbcTemplate.update("DELETE FROM account_lockouts WHERE username = ?", username);
+    }
+
+    @Override
+    public void purgeExpired(Instant now) {
+        jdbcTemplate.update("DELETE FROM login_failures WHERE window_index < ?",
+                SlidingWindow.windowIndex(now, window) - 1);
+        jdbcTemplate.update("DELETE FROM account_lockouts WHERE locked_until <= ?", Timestamp.from(now));
+    }
+}
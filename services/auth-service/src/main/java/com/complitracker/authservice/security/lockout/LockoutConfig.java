@@ -0,0 +1,22 @@
+package com.complitracker.authservice.security.lockout;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+public class LockoutConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "auth.lockout.store", havingValue = "jdbc")
+    public LockoutStore jdbcLockoutStore(JdbcTemplate jdbcTemplate, LockoutProperties properties) {
+        return new JdbcLockoutStore(jdbcTemplate, properties.getWindow());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "auth.lockout.store", havingValue = "memory", matchIfMissing = true)
+    public LockoutStore inMemoryLockoutStore(LockoutProperties properties) {
+        return new InMemoryLockoutStore(properties.getWindow(), properties.getMaxTrackedUsers());
+    }
+}
@@ -0,0 +1,27 @@
+package com.complitracker.authservice.security.lockout;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.lockout")
+public class LockoutProperties {
+    /** Failed logins within one window that lock the account. */
+    private int maxAttempts = 5;
+    /** Length of the sliding window failures are counted over. */
+    private Duration window = Duration.ofMinutes(30);
+    /** How long an account stays locked. */
+    private Duration duration = Duration.ofMinutes(30);
+    /** Hard cap on usernames tracked in memory, for failures and for locks each. */
+    private long maxTrackedUsers = 100_000;
+    /** Backend shared between instances: {@code jdbc} or {@code memory}. */
+    private String store = "memory";
+    /** How often locks taken by other instances are pulled from the store. */
+    private Duration syncInterval = Duration.ofSeconds(5);
+    /** How often expired failure windows and locks are deleted from the store. */
+    private Duration purgeInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,29 @@
+package com.complitracker.authservice.security.lockout;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Failure counts and account locks shared by every auth-service instance.
+ * Only failed logins write here; {@link com.complitracker.authservice.security.AccountLockoutService}
+ * answers lock checks from its own copy of {@link #activeLocks(Instant)}.
+ */
+public interface LockoutStore {
+
+    /**
+     * Records one failed login and returns the failures counted in the
+     * sliding window ending at {@code now}, this one included.
+     */
+    double recordFailure(String username, Instant now);
+
+    void lock(String username, Instant lockedUntil);
+
+    /** Locks that are still in force at {@code now}, by username. */
+    Map<String, Instant> activeLocks(Instant now);
+
+    /** Forgets the user's failures and any lock. */
+    void clear(String username);
+
+    /** Deletes failure windows and locks that can no longer matter. */
+    void purgeExpired(Instant now);
+}
@@ -0,0 +1,55 @@
+package com.complitracker.authservice.security.lockout;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Sliding-window counter kept as two fixed windows: the count of the current
+ * window plus the previous window's count weighted by how much of it still
+ * overlaps the sliding window. Two integers per user, at most one count too
+ * high or low at a window boundary.
+ */
+@Value
+public class SlidingWindow {
+    long windowIndex;
+    int previous;
+    int current;
+
+    public static long windowIndex(Instant now, Duration window) {
+        return now.toEpochMilli() / window.toMillis();
+    }
+
+    public static double estimate(int previous, int current, Instant now, Duration window) {
+        long windowMillis = window.toMillis();
+        double elapsed = (double) (now.toEpochMilli() % windowMillis) / windowMillis;
+        return previous * (1 - elapsed) + current;
+    }
+
+    /** Returns this window with one more failure at {@code now}. */
+    public SlidingWindow increment(Instant now, Duration window) {
+        long index = windowIndex(now, window);
+        if (index == windowIndex) {
+            return new SlidingWindow(index, previous, current + 1);
+        }
+        int carried = index == windowIndex + 1 ? current : 0;
+        return new SlidingWindow(index, carried, 1);
+    }
+
+    public double estimate(Instant now, Duration window) {
+        long index = windowIndex(now, window);
+        if (index == windowIndex) {
+            return estimate(previous, current, now, window);
+        }
+        if (index == windowIndex + 1) {
+            return estimate(current, 0, now, window);
+        }
+        return 0;
+    }
+
+    /** End of the window after this one, past which no failure here counts. */
+    public Instant expiresAt(Duration window) {
+        return Instant.ofEpochMilli((windowIndex + 2) * window.toMillis());
+    }
+}
@@ -0,0 +1,35 @@
+package com.complitracker.authservice.security.lockout;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Expires a cache entry at a deadline derived from its value. Reads leave the
+ * deadline alone; writes recompute it.
+ */
+public class UntilDeadline<V> implements Expiry<String, V> {
+    private final Function<V, Instant> deadline;
+
+    public UntilDeadline(Function<V, Instant> deadline) {
+        this.deadline = deadline;
+    }
+
+    @Override
+    public long expireAfterCreate(String key, V value, long currentTime) {
+        long remainingMillis = deadline.apply(value).toEpochMilli() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
@@ -0,0 +1,60 @@
+package com.complitracker.authservice.security.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of authenticated principals, keyed by email, so that
+ * {@link com.complitracker.authservice.security.jwt.AuthTokenFilter} does not
+ * reload the user and its roles on every request. Entries expire after a
+ * short TTL and are invalidated whenever the user row changes (see
+ * {@link UserPrincipalCacheListener}). Cached principals carry no password.
+ */
+@Component
+public class PrincipalCache {
+    private final Cache<String, UserDetailsImpl> cache;
+
+    public PrincipalCache(
+            @Value("${auth.principal-cache.max-size:10000}") long maxSize,
+            @Value("${auth.principal-cache.ttl:60s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public UserDetailsImpl get(String email, Function<String, UserDetailsImpl> loader) {
+        return cache.get(email, key -> loader.apply(key).withoutPassword());
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("size", cache.estimatedSize());
+        response.put("hitCount", stats.hitCount());
+        response.put("missCount", stats.missCount());
+        response.put("hitRatio", stats.hitRate());
+        response.put("evictionCount", stats.evictionCount());
+        response.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return response;
+    }
+}
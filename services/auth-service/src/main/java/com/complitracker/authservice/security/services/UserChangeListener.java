@@ -0,0 +1,102 @@
+package com.complitracker.authservice.security.services;
+
+import com.complitracker.authservice.model.User;
+import com.complitracker.authservice.security.jwt.TokenRevocationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Keeps {@link TokenRevocationService} in step with the users table. A
+ * password change, a role change or a delete revokes the user's outstanding
+ * tokens, since stateless authentication trusts the roles carried in the
+ * token. Edits that leave credentials alone revoke nothing. The cached
+ * principal is handled separately by {@link UserPrincipalCacheListener}.
+ */
+@Component
+public class UserChangeListener implements PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+    private final EntityManagerFactory entityManagerFactory;
+    private final TokenRevocationService tokenRevocationService;
+
+    public UserChangeListener(EntityManagerFactory entityManagerFactory,
+                              TokenRevocationService tokenRevocationService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User && passwordChanged(event)) {
+            userCredentialsChanged((User) event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User) {
+            userCredentialsChanged((User) event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        rolesChanged(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        rolesChanged(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void rolesChanged(AbstractCollectionEvent event) {
+        if (event.getAffectedOwnerOrNull() instanceof User
+                && UserPrincipalCacheListener.ROLES_COLLECTION.equals(event.getCollection().getRole())) {
+            userCredentialsChanged((User) event.getAffectedOwnerOrNull());
+        }
+    }
+
+    private boolean passwordChanged(PostUpdateEvent event) {
+        if (event.getOldState() == null) {
+            return true;
+        }
+        int password = Arrays.asList(event.getPersister().getPropertyNames()).indexOf("password");
+        return !Objects.equals(event.getOldState()[password], event.getState()[password]);
+    }
+
+    private void userCredentialsChanged(User user) {
+        tokenRevocationService.revokeAllForUser(user.getEmail());
+    }
+}
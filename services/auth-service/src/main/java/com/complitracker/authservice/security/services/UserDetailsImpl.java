@@ -45,6 +45,26 @@ public class UserDetailsImpl implements UserDetails {
                 authorities);
     }
 
+    /**
+     * Principal rebuilt from verified access-token claims, for stateless
+     * authentication. Carries no name or password.
+     */
+    public static UserDetailsImpl fromToken(Long id, String email, List<String> roles) {
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        return new UserDetailsImpl(id, null, email, null, authorities);
+    }
+
+    /**
+     * Copy of this principal without the password hash, for keeping in memory
+     * beyond the request that loaded it.
+     */
+    public UserDetailsImpl withoutPassword() {
+        return new UserDetailsImpl(id, name, email, null, authorities);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
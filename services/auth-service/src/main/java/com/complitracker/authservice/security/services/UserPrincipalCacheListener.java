@@ -0,0 +1,107 @@
+package com.complitracker.authservice.security.services;
+
+import com.complitracker.authservice.model.User;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Drops a user's cached principal whenever the row is updated or deleted, or
+ * its roles change, which covers role and password changes as well as profile
+ * edits. The entry is dropped again once the transaction completes, so a
+ * request that reloaded the user before the commit cannot keep the old roles
+ * cached.
+ *
+ * Hibernate events are used rather than JPA callbacks because a change to the
+ * roles collection alone does not trigger {@code @PostUpdate}.
+ */
+@Component
+public class UserPrincipalCacheListener implements PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+    static final String ROLES_COLLECTION = User.class.getName() + ".roles";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final PrincipalCache principalCache;
+
+    public UserPrincipalCacheListener(EntityManagerFactory entityManagerFactory, PrincipalCache principalCache) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.principalCache = principalCache;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User) {
+            userChanged((User) event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User) {
+            userChanged((User) event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        rolesChanged(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        rolesChanged(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void rolesChanged(AbstractCollectionEvent event) {
+        if (event.getAffectedOwnerOrNull() instanceof User
+                && ROLES_COLLECTION.equals(event.getCollection().getRole())) {
+            userChanged((User) event.getAffectedOwnerOrNull());
+        }
+    }
+
+    private void userChanged(User user) {
+        String email = user.getEmail();
+        principalCache.invalidate(email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    principalCache.invalidate(email);
+                }
+            });
+        }
+    }
+}
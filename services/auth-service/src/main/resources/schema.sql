@@ -1,4 +1,6 @@
 -- Drop existing tables
+DROP TABLE IF EXISTS account_lockouts;
+DROP TABLE IF EXISTS login_failures;
 DROP TABLE IF EXISTS user_sessions;
 DROP TABLE IF EXISTS user_tokens;
 DROP TABLE IF EXISTS user_roles;
@@ -24,16 +26,20 @@ CREATE TABLE IF NOT EXISTS users (
     enabled BOOLEAN DEFAULT false
 );
 
--- User tokens table for password reset and email verification
+-- User tokens table for password reset, email verification and refresh tokens
 CREATE TABLE IF NOT EXISTS user_tokens (
     id UUID PRIMARY KEY,
     user_id BIGINT NOT NULL REFERENCES users(id),
     token VARCHAR(255) NOT NULL,
     token_type VARCHAR(50) NOT NULL,
     expires_at TIMESTAMP NOT NULL,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    revoked_at TIMESTAMP
 );
 
+CREATE INDEX IF NOT EXISTS idx_user_tokens_user ON user_tokens (user_id, token_type);
+CREATE INDEX IF NOT EXISTS idx_user_tokens_revoked ON user_tokens (token_type, revoked_at);
+
 -- User sessions table
 CREATE TABLE IF NOT EXISTS user_sessions (
     id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
@@ -52,4 +58,33 @@ CREATE TABLE IF NOT EXISTS user_roles (
     PRIMARY KEY (user_id, role_id),
     FOREIGN KEY (user_id) REFERENCES users(id),
     FOREIGN KEY (role_id) REFERENCES roles(id)
-);
\ No newline at end of file
+);
+
+-- Failed logins per user and fixed window, for the sliding-window lockout count
+CREATE TABLE IF NOT EXISTS login_failures (
+    username VARCHAR(100) NOT NULL,
+    window_index BIGINT NOT NULL,
+    failures INT NOT NULL,
+    PRIMARY KEY (username, window_index)
+);
+
+-- Accounts locked after too many failed logins
+CREATE TABLE IF NOT EXISTS account_lockouts (
+    username VARCHAR(100) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL
+);
+
+-- Security audit log, append-only and kept across restarts
+CREATE TABLE IF NOT EXISTS security_audit_events (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    username VARCHAR(100),
+    provider VARCHAR(50),
+    message VARCHAR(500),
+    occurred_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_security_audit_events_user_time
+    ON security_audit_events (username, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_security_audit_events_time
+    ON security_audit_events (occurred_at);
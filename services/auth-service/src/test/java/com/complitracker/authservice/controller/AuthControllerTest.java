@@ -22,6 +22,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
@@ -61,6 +62,7 @@ public class AuthControllerTest {
     public void setup() {
         Role userRole = new Role(ERole.ROLE_USER);
         when(roleRepository.findByName(ERole.ROLE_USER)).thenReturn(Optional.of(userRole));
+        when(roleRepository.findAll()).thenReturn(Collections.singletonList(userRole));
         when(encoder.encode(any(String.class))).thenReturn("encodedPassword");
         when(jwtUtils.generateJwtToken(any(Authentication.class))).thenReturn("mockJwtToken");
         when(jwtUtils.generateJwtToken(any(String.class))).thenReturn("mockJwtToken");
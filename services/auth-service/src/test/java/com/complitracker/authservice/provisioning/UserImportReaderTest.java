@@ -0,0 +1,119 @@
+package com.complitracker.authservice.provisioning;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class UserImportReaderTest {
+
+    private static final String TOO_LONG = "x".repeat(9000);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void readsCsvColumnsInHeaderOrder() throws IOException {
+        List<UserImportRow> rows = readCsv(
+                "Email,password,NAME,roles\r\n"
+                        + "ada@example.com,secret1,Ada Lovelace,ROLE_USER;ROLE_ADMIN\r\n"
+                        + "\r\n"
+                        + "alan@example.com,secret2,Alan Turing,\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).getRow()).isEqualTo(1);
+        assertThat(rows.get(0).getRequest().getName()).isEqualTo("Ada Lovelace");
+        assertThat(rows.get(0).getRequest().getEmail()).isEqualTo("ada@example.com");
+        assertThat(rows.get(0).getRequest().getPassword()).isEqualTo("secret1");
+        assertThat(rows.get(0).getRequest().getRoles()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        assertThat(rows.get(1).getRow()).isEqualTo(2);
+        assertThat(rows.get(1).getRequest().getRoles()).isNull();
+    }
+
+    @Test
+    public void quotedCsvFieldsMaySpanLinesAndEscapeQuotes() throws IOException {
+        List<UserImportRow> rows = readCsv(
+                "name,email,password\n"
+                        + "\"Lovelace, Ada\nCountess\",ada@example.com,\"pa\"\"ss,word\"\n"
+                        + "Alan,alan@example.com,secret\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).getRequest().getName()).isEqualTo("Lovelace, Ada\nCountess");
+        assertThat(rows.get(0).getRequest().getPassword()).isEqualTo("pa\"ss,word");
+        assertThat(rows.get(1).getRequest().getEmail()).isEqualTo("alan@example.com");
+    }
+
+    @Test
+    public void overLongCsvRecordIsReportedAndSkipped() throws IOException {
+        List<UserImportRow> rows = readCsv(
+                "name,email,password\n"
+                        + "\"" + TOO_LONG + "\nstill, \"\"quoted\"\"\",a@example.com,secret\n"
+                        + "Alan,alan@example.com,secret\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).getRow()).isEqualTo(1);
+        assertThat(rows.get(0).getRequest()).isNull();
+        assertThat(rows.get(0).getError()).contains("longer than");
+        assertThat(rows.get(1).getRow()).isEqualTo(2);
+        assertThat(rows.get(1).getRequest().getName()).isEqualTo("Alan");
+    }
+
+    @Test
+    public void rejectsCsvHeaderThatIsTooLongOrIncomplete() {
+        assertThatThrownBy(() -> readCsv(TOO_LONG + ",name,email,password\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("longer than");
+        assertThatThrownBy(() -> readCsv("name,email\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("password");
+        assertThatThrownBy(() -> readCsv(""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void readsNdjsonAndReportsBadLines() throws IOException {
+        List<UserImportRow> rows = read(UserImportReader.APPLICATION_NDJSON,
+                "{\"name\":\"Ada\",\"email\":\"ada@example.com\",\"password\":\"secret1\",\"roles\":[\"ROLE_USER\"]}\r\n"
+                        + "\n"
+                        + "{\"name\":\"" + TOO_LONG + "\"}\n"
+                        + "{not json\n"
+                        + "{\"name\":\"Alan\",\"email\":\"alan@example.com\",\"password\":\"secret2\"}");
+
+        assertThat(rows).hasSize(4);
+        assertThat(rows.get(0).getRequest().getRoles()).containsExactly("ROLE_USER");
+        assertThat(rows.get(1).getRow()).isEqualTo(2);
+        assertThat(rows.get(1).getError()).contains("longer than");
+        assertThat(rows.get(2).getError()).startsWith("Malformed JSON");
+        assertThat(rows.get(3).getRow()).isEqualTo(4);
+        assertThat(rows.get(3).getRequest().getName()).isEqualTo("Alan");
+    }
+
+    @Test
+    public void rejectsUnsupportedContentType() {
+        assertThatThrownBy(() -> read(MediaType.APPLICATION_JSON, "[]"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<UserImportRow> readCsv(String content) throws IOException {
+        return read(UserImportReader.TEXT_CSV, content);
+    }
+
+    private List<UserImportRow> read(MediaType contentType, String content) throws IOException {
+        List<UserImportRow> rows = new ArrayList<>();
+        try (UserImportReader reader = UserImportReader.open(contentType,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), objectMapper)) {
+            UserImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
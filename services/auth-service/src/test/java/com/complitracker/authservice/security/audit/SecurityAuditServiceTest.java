@@ -0,0 +1,73 @@
+package com.complitracker.authservice.security.audit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SecurityAuditServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SecurityAuditService auditService;
+
+    @BeforeEach
+    public void setup() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE security_audit_events ("
+                + "id BIGSERIAL PRIMARY KEY, event_type VARCHAR(50) NOT NULL, "
+                + "username VARCHAR(100), provider VARCHAR(50), message VARCHAR(500), "
+                + "occurred_at TIMESTAMP NOT NULL, "
+                + "CONSTRAINT no_rejected_user CHECK (username IS NULL OR username <> 'rejected@example.com'))");
+
+        // Stands in for the @Transactional proxy Spring puts around the store
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        AuditEventStore store = new AuditEventStore(jdbcTemplate) {
+            @Override
+            public void appendAll(List<AuditEvent> events) {
+                transaction.executeWithoutResult(status -> super.appendAll(events));
+            }
+        };
+        auditService = new SecurityAuditService(store, 100, 100);
+    }
+
+    @Test
+    public void truncatesFieldsLongerThanTheirColumns() throws InterruptedException {
+        String email = "a".repeat(150) + "@example.com";
+        auditService.logAuthenticationFailure(email, "p".repeat(80), "r".repeat(600));
+        auditService.logAuthenticationSuccess("user@example.com", "local");
+        writeQueued();
+
+        assertThat(auditService.stats()).containsEntry("written", 2L).containsEntry("failed", 0L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT username FROM security_audit_events WHERE event_type = 'AUTHENTICATION_FAILURE'",
+                String.class)).isEqualTo(email.substring(0, 100));
+    }
+
+    @Test
+    public void aRejectedRowLosesOnlyItself() throws InterruptedException {
+        auditService.logAuthenticationSuccess("first@example.com", "local");
+        auditService.logPasswordChange("second@example.com");
+        auditService.logAuthenticationSuccess("rejected@example.com", "local");
+        auditService.logAccountLocked("third@example.com");
+        writeQueued();
+
+        assertThat(auditService.stats()).containsEntry("written", 3L).containsEntry("failed", 1L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM security_audit_events", Long.class))
+                .isEqualTo(3L);
+    }
+
+    /** Queued before the writer starts, so everything goes out as one batch. */
+    private void writeQueued() throws InterruptedException {
+        auditService.start();
+        auditService.stop();
+    }
+}
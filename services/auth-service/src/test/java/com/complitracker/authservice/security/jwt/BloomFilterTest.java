@@ -0,0 +1,70 @@
+package com.complitracker.authservice.security.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BloomFilterTest {
+
+    @Test
+    public void containsEveryIdThatWasAdded() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<UUID> ids = randomIds(10_000);
+        ids.forEach(filter::put);
+
+        assertThat(ids).allMatch(filter::mightContain);
+    }
+
+    @Test
+    public void falsePositiveRateStaysNearItsTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        randomIds(10_000).forEach(filter::put);
+
+        long falsePositives = randomIds(100_000).stream().filter(filter::mightContain).count();
+
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    public void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(0, 0.01);
+
+        assertThat(randomIds(1_000)).noneMatch(filter::mightContain);
+    }
+
+    @Test
+    public void concurrentPutsAreNotLost() throws Exception {
+        BloomFilter filter = new BloomFilter(80_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<UUID>>> added = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                added.add(executor.submit(() -> {
+                    List<UUID> ids = randomIds(10_000);
+                    ids.forEach(filter::put);
+                    return ids;
+                }));
+            }
+            for (Future<List<UUID>> ids : added) {
+                assertThat(ids.get()).allMatch(filter::mightContain);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<UUID> randomIds(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,148 @@
+package com.complitracker.authservice.security.jwt;
+
+import com.complitracker.authservice.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RefreshTokenServiceTest {
+
+    private static final String USERNAME = "user@example.com";
+    private static final long HOUR_MS = 60 * 60 * 1000;
+
+    private JdbcTemplate jdbcTemplate;
+    private JwtUtils jwtUtils;
+    private TokenRevocationService tokenRevocationService;
+    private RefreshTokenService refreshTokenService;
+    private UserDetailsImpl user;
+
+    @BeforeEach
+    public void setup() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE user_tokens ("
+                + "id UUID PRIMARY KEY, user_id BIGINT NOT NULL, token VARCHAR(255) NOT NULL, "
+                + "token_type VARCHAR(50) NOT NULL, expires_at TIMESTAMP NOT NULL, "
+                + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, revoked_at TIMESTAMP)");
+
+        jwtUtils = mock(JwtUtils.class);
+        when(jwtUtils.getRefreshExpirationMs()).thenReturn(HOUR_MS);
+        when(jwtUtils.getRefreshTokenExpiry()).thenAnswer(invocation -> new Date(System.currentTimeMillis() + HOUR_MS));
+        when(jwtUtils.generateRefreshToken(anyString(), any(UUID.class), any(Date.class)))
+                .thenAnswer(invocation -> "refresh-" + invocation.getArgument(1));
+
+        tokenRevocationService = new TokenRevocationService(HOUR_MS, 1000);
+        refreshTokenService = newService();
+        user = UserDetailsImpl.fromToken(1L, USERNAME, Collections.singletonList("ROLE_USER"));
+    }
+
+    @Test
+    public void rotatesAnIssuedTokenOnce() {
+        Claims claims = claimsOf(refreshTokenService.issue(user));
+
+        assertThat(refreshTokenService.rotate(claims)).isEqualTo(RefreshTokenService.Rotation.ROTATED);
+        assertThat(refreshTokenService.isRevoked(UUID.fromString(claims.getId()))).isTrue();
+        assertThat(tokenRevocationService.isRevoked(accessClaims())).isFalse();
+    }
+
+    @Test
+    public void reusingARotatedTokenRevokesTheWholeFamily() {
+        Claims first = claimsOf(refreshTokenService.issue(user));
+        Claims second = claimsOf(refreshTokenService.issue(user));
+        Claims access = accessClaims();
+
+        assertThat(refreshTokenService.rotate(first)).isEqualTo(RefreshTokenService.Rotation.ROTATED);
+        assertThat(refreshTokenService.rotate(first)).isEqualTo(RefreshTokenService.Rotation.REUSED);
+
+        assertThat(refreshTokenService.isRevoked(UUID.fromString(second.getId()))).isTrue();
+        assertThat(refreshTokenService.rotate(second)).isEqualTo(RefreshTokenService.Rotation.REUSED);
+        assertThat(tokenRevocationService.isRevoked(access)).isTrue();
+    }
+
+    @Test
+    public void detectsReuseOfATokenRotatedByAnotherInstance() {
+        RefreshTokenService otherInstance = newService();
+        Claims claims = claimsOf(refreshTokenService.issue(user));
+
+        assertThat(otherInstance.rotate(claims)).isEqualTo(RefreshTokenService.Rotation.ROTATED);
+        assertThat(refreshTokenService.isRevoked(UUID.fromString(claims.getId()))).isFalse();
+        assertThat(refreshTokenService.rotate(claims)).isEqualTo(RefreshTokenService.Rotation.REUSED);
+    }
+
+    @Test
+    public void rejectsTokensItDidNotIssue() {
+        Claims unknownId = refreshClaims(UUID.randomUUID().toString());
+        Claims malformedId = refreshClaims("not-a-uuid");
+        Claims noId = refreshClaims(null);
+
+        assertThat(refreshTokenService.rotate(unknownId)).isEqualTo(RefreshTokenService.Rotation.UNKNOWN);
+        assertThat(refreshTokenService.rotate(malformedId)).isEqualTo(RefreshTokenService.Rotation.UNKNOWN);
+        assertThat(refreshTokenService.rotate(noId)).isEqualTo(RefreshTokenService.Rotation.UNKNOWN);
+        assertThat(tokenRevocationService.isRevoked(accessClaims())).isFalse();
+    }
+
+    @Test
+    public void sizesTheFilterForRefreshRateTimesLifetime() {
+        RefreshTokenProperties properties = new RefreshTokenProperties();
+        properties.setExpectedRefreshesPerDay(14_000);
+        assertThat(RefreshTokenService.expectedRevocations(properties, 7 * 24 * HOUR_MS)).isEqualTo(98_000);
+
+        properties.setExpectedRevocations(5_000);
+        assertThat(RefreshTokenService.expectedRevocations(properties, 7 * 24 * HOUR_MS)).isEqualTo(5_000);
+    }
+
+    @Test
+    public void reportsRevokedTokensAgainstCapacity() {
+        refreshTokenService.rotate(claimsOf(refreshTokenService.issue(user)));
+
+        // 50,000 a day over a one-hour lifetime
+        assertThat(refreshTokenService.stats())
+                .containsEntry("revoked", 1)
+                .containsEntry("expectedRevocations", 2084L);
+    }
+
+    private RefreshTokenService newService() {
+        RefreshTokenService service = new RefreshTokenService(
+                jdbcTemplate, jwtUtils, tokenRevocationService, new RefreshTokenProperties());
+        service.loadRevokedTokens();
+        return service;
+    }
+
+    private static Claims claimsOf(String refreshToken) {
+        return refreshClaims(refreshToken.substring("refresh-".length()));
+    }
+
+    private static Claims refreshClaims(String tokenId) {
+        Claims claims = Jwts.claims()
+                .setSubject(USERNAME)
+                .setExpiration(new Date(System.currentTimeMillis() + HOUR_MS));
+        claims.setId(tokenId);
+        claims.put(JwtUtils.TOKEN_TYPE_CLAIM, JwtUtils.REFRESH_TOKEN);
+        return claims;
+    }
+
+    private static Claims accessClaims() {
+        long now = System.currentTimeMillis() - 1;
+        Claims claims = Jwts.claims()
+                .setSubject(USERNAME)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + HOUR_MS));
+        claims.setId(UUID.randomUUID().toString());
+        claims.put(JwtUtils.ISSUED_AT_MILLIS_CLAIM, now);
+        return claims;
+    }
+}
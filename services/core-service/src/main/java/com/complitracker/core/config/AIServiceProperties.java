@@ -13,8 +13,18 @@ public class AIServiceProperties {
     private String modelVersion;
     private int maxTokens;
     private float temperature;
-    private int requestTimeout;
+    private int requestTimeout = 5000;
     private int maxRetries;
-    private boolean enableCache;
-    private int cacheExpirationMinutes;
-}
\ No newline at end of file
+    private boolean enableCache = true;
+    private int cacheExpirationMinutes = 60;
+    private int strategyConcurrency = 8;
+    private int strategyScoreBand = 10;
+    private int strategyCacheSize = 10000;
+    private int assessmentCacheSize = 10000;
+    private boolean assessmentCachePersistent;
+    private int batchSize = 1;
+    private int batchWindowMillis = 20;
+    private int batchTimeoutPerItemMillis = 100;
+    private int batchConcurrency = 4;
+    private int maxConnections = 50;
+}
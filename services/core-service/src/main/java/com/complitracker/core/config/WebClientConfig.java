@@ -1,14 +1,50 @@
 package com.complitracker.core.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class WebClientConfig {
 
+    /**
+     * The connection pool for the AI service: keep-alive connections from a
+     * pool of {@code ai.service.max-connections}, and
+     * {@code ai.service.request-timeout} on connecting, waiting for a pooled
+     * connection and reading.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public CloseableHttpClient aiHttpClient(AIServiceProperties aiServiceProperties) {
+        Timeout timeout = Timeout.ofMilliseconds(aiServiceProperties.getRequestTimeout());
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(aiServiceProperties.getMaxConnections())
+            .setMaxConnPerRoute(aiServiceProperties.getMaxConnections())
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(timeout)
+                .setSocketTimeout(timeout)
+                .build())
+            .build();
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(timeout)
+                .setResponseTimeout(timeout)
+                .build())
+            .evictIdleConnections(TimeValue.ofSeconds(30))
+            .build();
     }
-}
\ No newline at end of file
+
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient aiHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(aiHttpClient));
+    }
+}
@@ -2,6 +2,8 @@ package com.complitracker.core.controller;
 
 import com.complitracker.core.model.ComplianceItem;
 import com.complitracker.core.service.AIRiskAssessmentService;
+import com.complitracker.core.service.MitigationStrategyFetcher;
+import com.complitracker.core.service.RiskAssessmentCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,10 +16,22 @@ import java.util.Map;
 public class AIRiskAssessmentController {
 
     private final AIRiskAssessmentService aiRiskAssessmentService;
+    private final RiskAssessmentCache riskAssessmentCache;
+    private final MitigationStrategyFetcher mitigationStrategyFetcher;
 
     @PostMapping("/assess")
     public ResponseEntity<Map<String, Double>> assessRisk(@RequestBody ComplianceItem complianceItem) {
-        Map<String, Double> riskFactors = aiRiskAssessmentService.assessRiskFactors(complianceItem);
+        Map<String, Double> riskFactors = aiRiskAssessmentService.assessRiskFactors(complianceItem, "assess");
         return ResponseEntity.ok(riskFactors);
     }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(riskAssessmentCache.stats());
+    }
+
+    @GetMapping("/mitigation-strategies/cache/stats")
+    public ResponseEntity<Map<String, Object>> getMitigationStrategyCacheStats() {
+        return ResponseEntity.ok(mitigationStrategyFetcher.stats());
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.complitracker.core.controller;
 
+import com.complitracker.core.model.RiskHistoryPage;
 import com.complitracker.core.service.RiskAnalysisService;
 import java.util.List;
 import java.util.Map;
@@ -51,10 +52,21 @@ public class RiskAnalysisController {
     @GetMapping("/history/{entityType}/{entityId}")
     public ResponseEntity<List<Map<String, Object>>> getRiskAnalysisHistory(
         @PathVariable String entityType,
-        @PathVariable String entityId
+        @PathVariable String entityId,
+        @RequestParam(required = false) String before,
+        @RequestParam(defaultValue = "100") int limit
     ) {
-        return ResponseEntity.ok(
-            riskAnalysisService.getRiskAnalysisHistory(entityType, entityId)
-        );
+        RiskHistoryPage page;
+        try {
+            page = riskAnalysisService.getRiskAnalysisHistory(entityType, entityId, before, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 }
@@ -0,0 +1,19 @@
+package com.complitracker.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The body of a batched {@code /analyze/batch} call: one assessment payload
+ * per item, answered by {@link RiskAssessmentBatchResult} in the same order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskAssessmentBatch {
+    private List<Map<String, Object>> items;
+}
@@ -0,0 +1,14 @@
+package com.complitracker.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskAssessmentBatchResult {
+    private List<RiskAssessmentResult> results;
+}
@@ -0,0 +1,28 @@
+package com.complitracker.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One analysis in a risk history page, with the overall score of the
+ * analysis before it for the same compliance item ({@code null} for the
+ * first analysis of an item).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskHistoryEntry {
+    private Long id;
+    private Long complianceItemId;
+    private LocalDateTime analysisDate;
+    private double overallScore;
+    private RiskLevel riskLevel;
+    private Double previousScore;
+    private List<RiskFactor> riskFactors;
+}
@@ -0,0 +1,18 @@
+package com.complitracker.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of risk history, newest first. {@code nextCursor} continues after
+ * the last item, and is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class RiskHistoryPage {
+    private List<Map<String, Object>> items;
+    private String nextCursor;
+}
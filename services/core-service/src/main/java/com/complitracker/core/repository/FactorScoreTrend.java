@@ -0,0 +1,13 @@
+package com.complitracker.core.repository;
+
+/**
+ * The two most recent scores of one risk factor within an area, by analysis
+ * date. {@code previous} is null when the factor has only been scored once.
+ */
+public interface FactorScoreTrend {
+    String getName();
+
+    Double getLatest();
+
+    Double getPrevious();
+}
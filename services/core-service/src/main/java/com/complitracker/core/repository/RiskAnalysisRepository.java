@@ -7,7 +7,6 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -39,14 +38,16 @@ public interface RiskAnalysisRepository extends JpaRepository<RiskAnalysis, Long
     @Query("SELECT rf FROM RiskAnalysis ra JOIN ra.riskFactors rf WHERE ra.complianceItemId IN (SELECT ci.id FROM ComplianceItem ci WHERE ci.areaId = :areaId)")
     List<RiskFactor> findRiskFactorsByAreaId(@Param("areaId") String areaId);
 
-    @Query("SELECT rf.score FROM RiskAnalysis ra JOIN ra.riskFactors rf WHERE rf.name = :factorName AND ra.complianceItemId IN (SELECT ci.id FROM ComplianceItem ci WHERE ci.areaId = :areaId) ORDER BY ra.analysisDate DESC")
-    List<Double> findHistoricalFactorScores(@Param("factorName") String factorName, @Param("areaId") String areaId);
-
-    @Query("SELECT ra FROM RiskAnalysis ra WHERE ra.complianceItemId IN (SELECT ci.id FROM ComplianceItem ci WHERE ci.entityType = :entityType AND ci.entityId = :entityId) ORDER BY ra.analysisDate DESC")
-    List<RiskAnalysis> findRiskAnalysisHistory(@Param("entityType") String entityType, @Param("entityId") String entityId);
-
-    @Query("SELECT ra FROM RiskAnalysis ra WHERE ra.complianceItemId = :complianceItemId AND ra.analysisDate < :currentDate ORDER BY ra.analysisDate DESC")
-    RiskAnalysis findPreviousAnalysis(@Param("complianceItemId") Long complianceItemId, @Param("currentDate") LocalDateTime currentDate);
+    @Query(value = "SELECT name, latest, previous FROM ("
+            + "SELECT rf.name AS name, rf.score AS latest, "
+            + "LEAD(rf.score) OVER (PARTITION BY rf.name ORDER BY ra.analysis_date DESC, rf.id DESC) AS previous, "
+            + "ROW_NUMBER() OVER (PARTITION BY rf.name ORDER BY ra.analysis_date DESC, rf.id DESC) AS rn "
+            + "FROM risk_factors rf "
+            + "JOIN risk_analyses ra ON ra.id = rf.risk_analysis_id "
+            + "JOIN compliance_item ci ON ci.id = ra.compliance_item_id "
+            + "WHERE ci.area_id = :areaId"
+            + ") ranked WHERE rn = 1", nativeQuery = true)
+    List<FactorScoreTrend> findFactorScoreTrends(@Param("areaId") String areaId);
 
     @Query("SELECT ra FROM RiskAnalysis ra WHERE ra.complianceItemId IN (SELECT ci.id FROM ComplianceItem ci WHERE ci.userId = :userId) ORDER BY ra.analysisDate DESC")
     List<RiskAnalysis> findRiskAnalysisByUserId(@Param("userId") String userId);
@@ -0,0 +1,69 @@
+package com.complitracker.core.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The persistent tier of the risk assessment cache: AI results as JSON, keyed
+ * by the hash of the payload they were computed from. Rows past
+ * {@code expires_at} are never returned and are removed by
+ * {@link #deleteExpired}.
+ *
+ * Each call runs in a transaction of its own, so a cache failure cannot abort
+ * the transaction of an analysis that is being saved.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.REQUIRES_NEW)
+public class RiskAssessmentCacheRepository {
+    private static final String FIND_SQL = "SELECT result, expires_at FROM risk_assessment_cache "
+            + "WHERE payload_hash = :payloadHash AND expires_at > :now";
+
+    private static final String UPSERT_SQL = "INSERT INTO risk_assessment_cache (payload_hash, result, expires_at) "
+            + "VALUES (:payloadHash, :result, :expiresAt) "
+            + "ON CONFLICT (payload_hash) DO UPDATE SET result = EXCLUDED.result, expires_at = EXCLUDED.expires_at";
+
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM risk_assessment_cache WHERE expires_at <= :now";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value
+    public static class CachedResult {
+        String result;
+        LocalDateTime expiresAt;
+    }
+
+    /**
+     * The JSON stored for the hash and when it expires, or null if there is
+     * none or it already expired.
+     */
+    public CachedResult find(String payloadHash) {
+        List<CachedResult> results = jdbcTemplate.query(FIND_SQL, new MapSqlParameterSource()
+                        .addValue("payloadHash", payloadHash)
+                        .addValue("now", Timestamp.valueOf(LocalDateTime.now())),
+                (rs, rowNum) -> new CachedResult(rs.getString("result"),
+                        rs.getTimestamp("expires_at").toLocalDateTime()));
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    public void save(String payloadHash, String result, LocalDateTime expiresAt) {
+        jdbcTemplate.update(UPSERT_SQL, new MapSqlParameterSource()
+                .addValue("payloadHash", payloadHash)
+                .addValue("result", result)
+                .addValue("expiresAt", Timestamp.valueOf(expiresAt)));
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, new MapSqlParameterSource()
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now())));
+    }
+}
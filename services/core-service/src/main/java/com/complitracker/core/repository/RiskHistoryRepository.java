@@ -0,0 +1,121 @@
+package com.complitracker.core.repository;
+
+import com.complitracker.core.model.RiskFactor;
+import com.complitracker.core.model.RiskHistoryEntry;
+import com.complitracker.core.model.RiskLevel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the risk history of an entity newest first, one keyset page at a
+ * time, in (analysis_date, id) order.
+ *
+ * An entity can have many compliance items, and the index is per item, so
+ * the page is not sorted out of all of the entity's analyses. A LATERAL
+ * subquery reads at most {@code limit} analyses of each item with a backward
+ * scan of {@code (compliance_item_id, analysis_date, id)}, and only those
+ * items x limit candidates are merged and cut to the page.
+ *
+ * The previous score of each analysis is computed in the same query with
+ * {@code LAG} per compliance item over the page. Only the oldest row of each
+ * item on the page has its predecessor off the page; that one is read with a
+ * single lookup on {@code (compliance_item_id, analysis_date, id)}, so the
+ * work done grows with the page size rather than the length of the history.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RiskHistoryRepository {
+    private static final String PAGE_SQL = "SELECT id, compliance_item_id, analysis_date, overall_score, risk_level, "
+            + "COALESCE(previous_on_page, (SELECT prev.overall_score FROM risk_analyses prev "
+            + "WHERE prev.compliance_item_id = paged.compliance_item_id "
+            + "AND (prev.analysis_date < paged.analysis_date "
+            + "OR (prev.analysis_date = paged.analysis_date AND prev.id < paged.id)) "
+            + "ORDER BY prev.analysis_date DESC, prev.id DESC LIMIT 1)) AS previous_score "
+            + "FROM ("
+            + "SELECT page.*, LAG(page.overall_score) OVER "
+            + "(PARTITION BY page.compliance_item_id ORDER BY page.analysis_date, page.id) AS previous_on_page "
+            + "FROM ("
+            + "SELECT latest.* "
+            + "FROM compliance_item ci "
+            + "CROSS JOIN LATERAL ("
+            + "SELECT ra.id, ra.compliance_item_id, ra.analysis_date, ra.overall_score, ra.risk_level "
+            + "FROM risk_analyses ra "
+            + "WHERE ra.compliance_item_id = ci.id %s"
+            + "ORDER BY ra.analysis_date DESC, ra.id DESC "
+            + "LIMIT :limit"
+            + ") latest "
+            + "WHERE ci.entity_type = :entityType AND ci.entity_id = :entityId "
+            + "ORDER BY latest.analysis_date DESC, latest.id DESC "
+            + "LIMIT :limit"
+            + ") page"
+            + ") paged "
+            + "ORDER BY analysis_date DESC, id DESC";
+
+    private static final String BEFORE_CURSOR = "AND (ra.analysis_date < :beforeDate "
+            + "OR (ra.analysis_date = :beforeDate AND ra.id < :beforeId)) ";
+
+    private static final RowMapper<RiskHistoryEntry> ENTRY_MAPPER = (rs, rowNum) -> RiskHistoryEntry.builder()
+            .id(rs.getLong("id"))
+            .complianceItemId(rs.getLong("compliance_item_id"))
+            .analysisDate(rs.getTimestamp("analysis_date").toLocalDateTime())
+            .overallScore(rs.getDouble("overall_score"))
+            .riskLevel(RiskLevel.valueOf(rs.getString("risk_level")))
+            .previousScore(rs.getObject("previous_score") == null ? null : rs.getDouble("previous_score"))
+            .build();
+
+    private static final RowMapper<RiskFactor> FACTOR_MAPPER = (rs, rowNum) -> RiskFactor.builder()
+            .id(rs.getLong("id"))
+            .name(rs.getString("name"))
+            .score(rs.getDouble("score"))
+            .weight(rs.getDouble("weight"))
+            .description(rs.getString("description"))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Up to {@code limit} analyses of the entity, newest first, strictly
+     * before the ({@code beforeDate}, {@code beforeId}) cursor when one is
+     * given. Factors are not loaded; see {@link #findFactors}.
+     */
+    public List<RiskHistoryEntry> findPage(String entityType, Long entityId,
+                                           LocalDateTime beforeDate, Long beforeId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("entityType", entityType)
+                .addValue("entityId", entityId)
+                .addValue("limit", limit);
+        String cursor = "";
+        if (beforeDate != null) {
+            params.addValue("beforeDate", Timestamp.valueOf(beforeDate)).addValue("beforeId", beforeId);
+            cursor = BEFORE_CURSOR;
+        }
+        return jdbcTemplate.query(String.format(PAGE_SQL, cursor), params, ENTRY_MAPPER);
+    }
+
+    /**
+     * The factors of the given analyses in one query, keyed by analysis id.
+     */
+    public Map<Long, List<RiskFactor>> findFactors(Collection<Long> analysisIds) {
+        if (analysisIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Map.Entry<Long, RiskFactor>> rows = jdbcTemplate.query(
+                "SELECT id, name, score, weight, description, risk_analysis_id FROM risk_factors "
+                        + "WHERE risk_analysis_id IN (:ids) ORDER BY risk_analysis_id, id",
+                new MapSqlParameterSource("ids", analysisIds),
+                (rs, rowNum) -> Map.entry(rs.getLong("risk_analysis_id"), FACTOR_MAPPER.mapRow(rs, rowNum)));
+        return rows.stream().collect(Collectors.groupingBy(Map.Entry::getKey,
+                Collectors.mapping(Map.Entry::getValue, Collectors.toCollection(ArrayList::new))));
+    }
+}
@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,18 +18,23 @@ import java.util.Map;
 public class AIRiskAssessmentService {
     private final RestTemplate restTemplate;
     private final AIServiceProperties aiServiceProperties;
+    private final RiskAssessmentCache riskAssessmentCache;
+    private final RiskAssessmentBatcher riskAssessmentBatcher;
 
-    public Map<String, Double> assessRiskFactors(ComplianceItem complianceItem) {
-        Map<String, Object> assessmentData = prepareAssessmentData(complianceItem);
-        
-        // Call AI service for risk assessment
-        RiskAssessmentResult result = restTemplate.postForObject(
-            aiServiceProperties.getApiEndpoint() + "/analyze",
-            assessmentData,
-            RiskAssessmentResult.class
-        );
+    /**
+     * Scores the item's risk factors, reusing an earlier assessment of an
+     * identical payload when {@link RiskAssessmentCache} has one.
+     * {@code endpoint} names the caller in the cache statistics.
+     */
+    public Map<String, Double> assessRiskFactors(ComplianceItem complianceItem, String endpoint) {
+        return riskAssessmentCache.get(endpoint, complianceItem, () -> {
+            Map<String, Object> assessmentData = prepareAssessmentData(complianceItem);
+
+            // Call AI service for risk assessment, batched with concurrent callers
+            RiskAssessmentResult result = riskAssessmentBatcher.assess(assessmentData);
 
-        return processRiskAssessmentResult(result);
+            return processRiskAssessmentResult(result);
+        });
     }
 
     private Map<String, Object> prepareAssessmentData(ComplianceItem item) {
@@ -37,8 +43,9 @@ public class AIRiskAssessmentService {
         data.put("requirements", item.getRequirements());
         data.put("deadline", item.getDeadline());
         data.put("status", item.getStatus());
-        data.put("documents", item.getDocuments());
-        data.put("historicalData", item.getHistoricalData());
+        // Plain lists, so identical payloads compare equal when batched
+        data.put("documents", item.getDocuments() != null ? new ArrayList<>(item.getDocuments()) : null);
+        data.put("historicalData", item.getHistoricalData() != null ? new ArrayList<>(item.getHistoricalData()) : null);
         return data;
     }
 
@@ -0,0 +1,185 @@
+package com.complitracker.core.service;
+
+import com.complitracker.core.config.AIServiceProperties;
+import com.complitracker.core.model.RiskFactor;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches mitigation strategies for the factors of an analysis concurrently,
+ * on a pool of {@code ai.service.strategy-concurrency} threads, and waits at
+ * most {@code ai.service.request-timeout} milliseconds for all of them. A
+ * factor whose call fails, times out or finds the pool saturated gets an
+ * empty list and a status saying why, so one slow call never holds back the
+ * rest.
+ *
+ * Strategies depend only on the factor name and its score band of
+ * {@code ai.service.strategy-score-band} points, so they are cached per band
+ * for {@code ai.service.cache-expiration-minutes}, up to
+ * {@code ai.service.strategy-cache-size} bands. The cache holds the pending
+ * call, which lets concurrent requests for the same band share it; a call
+ * that fails is dropped from the cache, while one that merely outlived its
+ * caller still fills it when it completes.
+ */
+@Service
+public class MitigationStrategyFetcher {
+    private static final Logger logger = LoggerFactory.getLogger(MitigationStrategyFetcher.class);
+
+    public enum Status { CACHED, FETCHED, TIMED_OUT, FAILED, REJECTED }
+
+    @Value
+    public static class Strategies {
+        List<String> strategies;
+        Status status;
+    }
+
+    private final AIRiskAssessmentService aiRiskAssessmentService;
+    private final AIServiceProperties properties;
+    private final ThreadPoolExecutor pool;
+    private final AsyncCache<String, List<String>> cache;
+
+    public MitigationStrategyFetcher(AIRiskAssessmentService aiRiskAssessmentService,
+                                     AIServiceProperties properties) {
+        this.aiRiskAssessmentService = aiRiskAssessmentService;
+        this.properties = properties;
+
+        int concurrency = Math.max(1, properties.getStrategyConcurrency());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                concurrency,
+                concurrency,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(concurrency * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mitigation-strategy-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, properties.getStrategyCacheSize()))
+                .expireAfterWrite(Duration.ofMinutes(properties.getCacheExpirationMinutes()))
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * The strategies for each factor, in the order given.
+     */
+    public List<Strategies> fetch(List<RiskFactor> factors) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getRequestTimeout());
+
+        Map<String, CompletableFuture<List<String>>> calls = new HashMap<>();
+        Map<String, Status> statuses = new HashMap<>();
+        for (RiskFactor factor : factors) {
+            String key = cacheKey(factor);
+            if (calls.containsKey(key) || statuses.containsKey(key)) {
+                continue;
+            }
+            try {
+                boolean[] fetched = new boolean[1];
+                calls.put(key, call(key, factor, fetched));
+                statuses.put(key, fetched[0] ? Status.FETCHED : Status.CACHED);
+            } catch (RejectedExecutionException e) {
+                statuses.put(key, Status.REJECTED);
+            }
+        }
+
+        Map<String, Strategies> results = new HashMap<>();
+        for (Map.Entry<String, Status> entry : statuses.entrySet()) {
+            String key = entry.getKey();
+            CompletableFuture<List<String>> call = calls.get(key);
+            results.put(key, call == null
+                    ? new Strategies(List.of(), entry.getValue())
+                    : await(key, call, entry.getValue(), deadline));
+        }
+
+        List<Strategies> ordered = new ArrayList<>(factors.size());
+        for (RiskFactor factor : factors) {
+            ordered.add(results.get(cacheKey(factor)));
+        }
+        return ordered;
+    }
+
+    private Strategies await(String key, CompletableFuture<List<String>> call, Status status, long deadline) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            List<String> strategies = call.get(remaining, TimeUnit.NANOSECONDS);
+            return new Strategies(strategies != null ? strategies : List.of(), status);
+        } catch (TimeoutException e) {
+            logger.warn("Mitigation strategies for {} not ready within {} ms", key, properties.getRequestTimeout());
+            return new Strategies(List.of(), Status.TIMED_OUT);
+        } catch (ExecutionException e) {
+            logger.warn("Mitigation strategies for {} failed: {}", key, e.getCause().getMessage());
+            return new Strategies(List.of(), Status.FAILED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching mitigation strategies", e);
+        }
+    }
+
+    /**
+     * The cached or pending call for the factor's band, or a new one, in
+     * which case {@code fetched[0]} is set.
+     */
+    private CompletableFuture<List<String>> call(String key, RiskFactor factor, boolean[] fetched) {
+        if (!properties.isEnableCache()) {
+            fetched[0] = true;
+            return supply(factor);
+        }
+        return cache.get(key, (band, executor) -> {
+            fetched[0] = true;
+            return supply(factor);
+        });
+    }
+
+    private CompletableFuture<List<String>> supply(RiskFactor factor) {
+        return CompletableFuture.supplyAsync(() -> aiRiskAssessmentService.generateMitigationStrategies(factor), pool);
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.synchronous().stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("entries", cache.synchronous().estimatedSize());
+        response.put("hits", stats.hitCount());
+        response.put("misses", stats.missCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("evictions", stats.evictionCount());
+        return response;
+    }
+
+    private String cacheKey(RiskFactor factor) {
+        int band = Math.max(1, properties.getStrategyScoreBand());
+        double score = Math.max(0, Math.min(100, factor.getScore()));
+        // 100 belongs to the top band rather than one of its own
+        return factor.getName() + "#" + Math.min((int) (score / band), 99 / band);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
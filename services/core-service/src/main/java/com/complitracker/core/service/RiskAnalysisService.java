@@ -3,13 +3,21 @@ package com.complitracker.core.service;
 import com.complitracker.core.model.ComplianceItem;
 import com.complitracker.core.model.RiskAnalysis;
 import com.complitracker.core.model.RiskFactor;
+import com.complitracker.core.model.RiskHistoryEntry;
+import com.complitracker.core.model.RiskHistoryPage;
 import com.complitracker.core.model.RiskScore;
+import com.complitracker.core.repository.FactorScoreTrend;
 import com.complitracker.core.repository.RiskAnalysisRepository;
+import com.complitracker.core.repository.RiskHistoryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.complitracker.core.model.RiskLevel;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,8 +26,12 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class RiskAnalysisService {
+    private static final int MAX_HISTORY_PAGE_SIZE = 500;
+
     private final RiskAnalysisRepository riskAnalysisRepository;
+    private final RiskHistoryRepository riskHistoryRepository;
     private final AIRiskAssessmentService aiRiskAssessmentService;
+    private final MitigationStrategyFetcher mitigationStrategyFetcher;
 
     public Map<String, Object> getOrganizationRiskScore(String userId) {
         Map<String, Object> map = new HashMap<>();
@@ -41,13 +53,15 @@ public class RiskAnalysisService {
 
     public List<Map<String, Object>> getRiskFactors(String areaId) {
         List<RiskFactor> factors = riskAnalysisRepository.findRiskFactorsByAreaId(areaId);
+        Map<String, String> trends = riskAnalysisRepository.findFactorScoreTrends(areaId).stream()
+            .collect(Collectors.toMap(FactorScoreTrend::getName, this::analyzeFactorTrend));
         return factors.stream()
             .map(factor -> {
                 Map<String, Object> map = new HashMap<>();
                 map.put("name", factor.getName());
                 map.put("score", factor.getScore());
                 map.put("impact", calculateFactorImpact(factor.getScore()));
-                map.put("trend", analyzeFactorTrend(factor.getName(), areaId));
+                map.put("trend", trends.getOrDefault(factor.getName(), "STABLE"));
                 return map;
             })
             .collect(Collectors.toList());
@@ -57,31 +71,60 @@ public class RiskAnalysisService {
         RiskAnalysis analysis = riskAnalysisRepository.findById(Long.parseLong(riskId))
             .orElseThrow(() -> new RuntimeException("Risk analysis not found"));
         
-        return analysis.getRiskFactors().stream()
-            .map(factor -> {
-                Map<String, Object> map = new HashMap<>();
-                map.put("factor", factor.getName());
-                map.put("score", factor.getScore());
-                map.put("recommendations", generateMitigationRecommendations(factor));
-                map.put("priority", determineMitigationPriority(factor.getScore()));
-                return map;
-            })
-            .collect(Collectors.toList());
-    }
+        List<RiskFactor> factors = analysis.getRiskFactors();
+        List<MitigationStrategyFetcher.Strategies> strategies = mitigationStrategyFetcher.fetch(factors);
+        List<Map<String, Object>> recommendations = new ArrayList<>(factors.size());
+        for (int i = 0; i < factors.size(); i++) {
+            RiskFactor factor = factors.get(i);
+            Map<String, Object> map = new HashMap<>();
+            map.put("factor", factor.getName());
+            map.put("score", factor.getScore());
+            map.put("recommendations", strategies.get(i).getStrategies());
+            map.put("recommendationStatus", strategies.get(i).getStatus());
+            map.put("priority", determineMitigationPriority(factor.getScore()));
+            recommendations.add(map);
+        }
+        return recommendations;
+    }
+
+    /**
+     * One page of an entity's risk history, newest first. Pass the previous
+     * page's {@code nextCursor} as {@code before} to continue. Throws
+     * {@link IllegalArgumentException} for a malformed entity id or cursor.
+     */
+    public RiskHistoryPage getRiskAnalysisHistory(String entityType, String entityId, String before, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        LocalDateTime beforeDate = null;
+        Long beforeId = null;
+        if (before != null) {
+            String[] cursor = decodeHistoryCursor(before);
+            beforeDate = LocalDateTime.parse(cursor[0]);
+            beforeId = Long.parseLong(cursor[1]);
+        }
 
-    public List<Map<String, Object>> getRiskAnalysisHistory(String entityType, String entityId) {
-        List<RiskAnalysis> history = riskAnalysisRepository.findRiskAnalysisHistory(entityType, entityId);
-        return history.stream()
-            .map(analysis -> {
+        List<RiskHistoryEntry> history = riskHistoryRepository.findPage(
+            entityType, Long.parseLong(entityId), beforeDate, beforeId, pageSize);
+        Map<Long, List<RiskFactor>> factors = riskHistoryRepository.findFactors(
+            history.stream().map(RiskHistoryEntry::getId).collect(Collectors.toList()));
+
+        List<Map<String, Object>> items = history.stream()
+            .map(entry -> {
                 Map<String, Object> map = new HashMap<>();
-                map.put("date", analysis.getAnalysisDate());
-                map.put("score", analysis.getOverallScore());
-                map.put("level", analysis.getRiskLevel());
-                map.put("factors", analysis.getRiskFactors());
-                map.put("changes", calculateRiskChanges(analysis));
+                map.put("date", entry.getAnalysisDate());
+                map.put("score", entry.getOverallScore());
+                map.put("level", entry.getRiskLevel());
+                map.put("factors", factors.getOrDefault(entry.getId(), List.of()));
+                map.put("changes", calculateRiskChanges(entry));
                 return map;
             })
             .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (history.size() == pageSize) {
+            RiskHistoryEntry last = history.get(history.size() - 1);
+            nextCursor = encodeHistoryCursor(last.getAnalysisDate(), last.getId());
+        }
+        return new RiskHistoryPage(items, nextCursor);
     }
 
     private String calculateFactorImpact(double score) {
@@ -90,22 +133,15 @@ public class RiskAnalysisService {
         return "LOW";
     }
 
-    private String analyzeFactorTrend(String factorName, String areaId) {
-        List<Double> historicalScores = riskAnalysisRepository.findHistoricalFactorScores(factorName, areaId);
-        if (historicalScores.size() < 2) return "STABLE";
+    private String analyzeFactorTrend(FactorScoreTrend trend) {
+        if (trend.getPrevious() == null) return "STABLE";
         
-        double recent = historicalScores.get(0);
-        double previous = historicalScores.get(1);
-        double difference = recent - previous;
+        double difference = trend.getLatest() - trend.getPrevious();
         
         if (Math.abs(difference) < 5) return "STABLE";
         return difference > 0 ? "INCREASING" : "DECREASING";
     }
 
-    private List<String> generateMitigationRecommendations(RiskFactor factor) {
-        return aiRiskAssessmentService.generateMitigationStrategies(factor);
-    }
-
     private String determineMitigationPriority(double score) {
         if (score >= 75) return "IMMEDIATE";
         if (score >= 50) return "HIGH";
@@ -113,18 +149,15 @@ public class RiskAnalysisService {
         return "LOW";
     }
 
-    private Map<String, Object> calculateRiskChanges(RiskAnalysis analysis) {
-        RiskAnalysis previousAnalysis = riskAnalysisRepository
-            .findPreviousAnalysis(analysis.getComplianceItemId(), analysis.getAnalysisDate());
-        
-        if (previousAnalysis == null) {
+    private Map<String, Object> calculateRiskChanges(RiskHistoryEntry entry) {
+        if (entry.getPreviousScore() == null) {
             Map<String, Object> map = new HashMap<>();
             map.put("type", "INITIAL");
             map.put("difference", 0.0);
             return map;
         }
 
-        double scoreDifference = analysis.getOverallScore() - previousAnalysis.getOverallScore();
+        double scoreDifference = entry.getOverallScore() - entry.getPreviousScore();
         String changeType = Math.abs(scoreDifference) < 5 ? "MINIMAL" :
                           scoreDifference > 0 ? "INCREASED" : "DECREASED";
 
@@ -134,10 +167,28 @@ public class RiskAnalysisService {
         return map;
     }
 
+    private static String encodeHistoryCursor(LocalDateTime analysisDate, Long id) {
+        String cursor = analysisDate + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeHistoryCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("_");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid history cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            return parts;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid history cursor", e);
+        }
+    }
+
     @Transactional
     public RiskScore analyzeComplianceRisk(ComplianceItem complianceItem) {
         // Get AI-based risk assessment
-        Map<String, Double> riskFactors = aiRiskAssessmentService.assessRiskFactors(complianceItem);
+        Map<String, Double> riskFactors = aiRiskAssessmentService.assessRiskFactors(complianceItem, "risk-analysis");
         
         // Calculate overall risk score
         double overallScore = calculateOverallRiskScore(riskFactors);
@@ -0,0 +1,283 @@
+package com.complitracker.core.service;
+
+import com.complitracker.core.config.AIServiceProperties;
+import com.complitracker.core.model.RiskAssessmentBatch;
+import com.complitracker.core.model.RiskAssessmentBatchResult;
+import com.complitracker.core.model.RiskAssessmentResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends AI risk assessments in batches. Callers block in {@link #assess} as
+ * before, but their payloads are queued and a collector thread gathers them
+ * until {@code ai.service.batch-size} are waiting or
+ * {@code ai.service.batch-window-millis} have passed since the first, then
+ * posts them together to {@code /analyze/batch} and hands each caller its own
+ * result. Identical payloads in a batch are sent once and share the result.
+ *
+ * Batching is opt-in: with the default batch size of 1 requests go straight
+ * to {@code /analyze} one at a time. If the AI service answers the batch
+ * endpoint with 404 or 405 the batcher falls back to that for good, and the
+ * callers of the rejected batch each make their own call.
+ *
+ * Up to {@code ai.service.batch-concurrency} batches are sent at a time.
+ * When every sender is busy the collector sends the next batch itself, and
+ * gathers no more until it is done, so a slow AI service pushes back on
+ * callers instead of building up batches. A payload that has waited longer
+ * than {@code ai.service.request-timeout} to be sent is failed instead of
+ * sent. A batch may take {@code ai.service.request-timeout} plus
+ * {@code ai.service.batch-timeout-per-item-millis} per item of a full batch
+ * to answer, and a failed batch fails every caller in it with the same
+ * exception.
+ */
+@Service
+public class RiskAssessmentBatcher {
+    private static final Logger logger = LoggerFactory.getLogger(RiskAssessmentBatcher.class);
+    private static final long IDLE_POLL_MILLIS = 1000;
+
+    private final RestTemplate restTemplate;
+    private final RestTemplate batchRestTemplate;
+    private final AIServiceProperties properties;
+    private final BlockingQueue<PendingAssessment> queue;
+    private final ThreadPoolExecutor senders;
+    private final long queueTimeoutNanos;
+    private final long callerTimeoutMillis;
+
+    private volatile boolean running;
+    private volatile boolean batchEndpointMissing;
+    private Thread collector;
+
+    public RiskAssessmentBatcher(RestTemplate restTemplate, HttpClient aiHttpClient, AIServiceProperties properties) {
+        this.restTemplate = restTemplate;
+        this.properties = properties;
+
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int concurrency = Math.max(1, properties.getBatchConcurrency());
+        this.queue = new ArrayBlockingQueue<>(batchSize * concurrency * 4);
+
+        // the batch endpoint shares the connection pool, with a response
+        // timeout sized for a full batch
+        long batchTimeoutMillis = properties.getRequestTimeout()
+                + (long) batchSize * properties.getBatchTimeoutPerItemMillis();
+        RequestConfig batchRequestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(properties.getRequestTimeout()))
+                .setResponseTimeout(Timeout.ofMilliseconds(batchTimeoutMillis))
+                .build();
+        HttpComponentsClientHttpRequestFactory batchRequestFactory = new HttpComponentsClientHttpRequestFactory(aiHttpClient);
+        batchRequestFactory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(batchRequestConfig);
+            return context;
+        });
+        this.batchRestTemplate = new RestTemplate(batchRequestFactory);
+
+        // waiting to be sent, the batch window, waiting for a connection, then the batch itself
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.getRequestTimeout());
+        this.callerTimeoutMillis = 2L * properties.getRequestTimeout()
+                + properties.getBatchWindowMillis()
+                + batchTimeoutMillis;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(
+                concurrency,
+                concurrency,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "risk-assessment-batch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!batching()) {
+            return;
+        }
+        running = true;
+        collector = new Thread(this::collectLoop, "risk-assessment-batcher");
+        collector.setDaemon(true);
+        collector.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (collector != null) {
+            collector.join(IDLE_POLL_MILLIS + properties.getBatchWindowMillis());
+        }
+        senders.shutdown();
+        List<PendingAssessment> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.result.completeExceptionally(
+                new ResourceAccessException("Risk assessment batcher is shutting down")));
+    }
+
+    /**
+     * The AI assessment of one payload. Throws {@link RestClientException}
+     * when the call fails, when the payload could not be sent within
+     * {@code ai.service.request-timeout}, or when its batch outlives its own
+     * timeout.
+     */
+    public RiskAssessmentResult assess(Map<String, Object> assessmentData) {
+        if (!batching()) {
+            return assessOne(assessmentData);
+        }
+
+        PendingAssessment pending = new PendingAssessment(assessmentData);
+        long deadline = pending.enqueuedAt + TimeUnit.MILLISECONDS.toNanos(callerTimeoutMillis);
+        try {
+            if (!queue.offer(pending, queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new ResourceAccessException("Risk assessment queue is full");
+            }
+            return pending.result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new ResourceAccessException("Risk assessment timed out after " + callerTimeoutMillis + " ms");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BatchEndpointMissingException) {
+                return assessOne(assessmentData);
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RestClientException("Risk assessment failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting for a risk assessment");
+        }
+    }
+
+    private RiskAssessmentResult assessOne(Map<String, Object> assessmentData) {
+        return restTemplate.postForObject(
+                properties.getApiEndpoint() + "/analyze", assessmentData, RiskAssessmentResult.class);
+    }
+
+    private boolean batching() {
+        return properties.getBatchSize() > 1 && !batchEndpointMissing;
+    }
+
+    private void collectLoop() {
+        int batchSize = properties.getBatchSize();
+        long window = TimeUnit.MILLISECONDS.toNanos(properties.getBatchWindowMillis());
+        while (running) {
+            try {
+                PendingAssessment first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingAssessment> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + window;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingAssessment next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                senders.execute(() -> send(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void send(List<PendingAssessment> pendingBatch) {
+        long now = System.nanoTime();
+        List<PendingAssessment> batch = new ArrayList<>(pendingBatch.size());
+        for (PendingAssessment pending : pendingBatch) {
+            if (now - pending.enqueuedAt > queueTimeoutNanos) {
+                pending.result.completeExceptionally(new ResourceAccessException(
+                        "Risk assessment was not sent within " + properties.getRequestTimeout() + " ms"));
+            } else {
+                batch.add(pending);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<Map<String, Object>, List<PendingAssessment>> distinct = new LinkedHashMap<>();
+        for (PendingAssessment pending : batch) {
+            distinct.computeIfAbsent(pending.assessmentData, data -> new ArrayList<>()).add(pending);
+        }
+        List<Map<String, Object>> items = new ArrayList<>(distinct.keySet());
+
+        try {
+            RiskAssessmentBatchResult response = batchRestTemplate.postForObject(
+                    properties.getApiEndpoint() + "/analyze/batch",
+                    new RiskAssessmentBatch(items),
+                    RiskAssessmentBatchResult.class);
+            List<RiskAssessmentResult> results = response != null ? response.getResults() : null;
+            if (results == null || results.size() != items.size()) {
+                throw new RestClientException("Batch of " + items.size() + " assessments returned "
+                        + (results == null ? "no" : results.size()) + " results");
+            }
+            int i = 0;
+            for (List<PendingAssessment> callers : distinct.values()) {
+                RiskAssessmentResult result = results.get(i++);
+                callers.forEach(pending -> pending.result.complete(result));
+            }
+        } catch (HttpClientErrorException.NotFound | HttpClientErrorException.MethodNotAllowed e) {
+            if (!batchEndpointMissing) {
+                batchEndpointMissing = true;
+                logger.warn("AI service has no /analyze/batch ({}); assessing one item per request",
+                        e.getStatusCode());
+            }
+            BatchEndpointMissingException missing = new BatchEndpointMissingException();
+            batch.forEach(pending -> pending.result.completeExceptionally(missing));
+        } catch (RuntimeException e) {
+            logger.warn("Risk assessment batch of {} items failed: {}", items.size(), e.getMessage());
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+    }
+
+    private static final class PendingAssessment {
+        private final Map<String, Object> assessmentData;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<RiskAssessmentResult> result = new CompletableFuture<>();
+
+        PendingAssessment(Map<String, Object> assessmentData) {
+            this.assessmentData = assessmentData;
+        }
+    }
+
+    /** Tells the callers of a batch to retry on {@code /analyze} themselves. */
+    private static final class BatchEndpointMissingException extends RuntimeException {
+        BatchEndpointMissingException() {
+            super("AI service has no batch endpoint", null, false, false);
+        }
+    }
+}
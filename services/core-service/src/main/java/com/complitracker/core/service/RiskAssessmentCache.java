@@ -0,0 +1,281 @@
+package com.complitracker.core.service;
+
+import com.complitracker.core.config.AIServiceProperties;
+import com.complitracker.core.model.ComplianceItem;
+import com.complitracker.core.repository.RiskAssessmentCacheRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Caches AI risk assessments by a SHA-256 hash of what the assessment depends
+ * on: the item's type, requirements, deadline day, status, documents and
+ * history, plus the model version. An item that has not changed since its last
+ * assessment is therefore not sent to the AI service again, whichever entity
+ * or request it arrives with.
+ *
+ * Results are kept in memory for {@code ai.service.cache-expiration-minutes},
+ * up to {@code ai.service.assessment-cache-size} entries. The cache holds the
+ * pending assessment, so concurrent misses for the same payload wait on the
+ * first caller's instead of each calling the AI service, and the assessment
+ * itself runs on that caller's thread rather than inside the cache. With
+ * {@code ai.service.assessment-cache-persistent} results are also written to
+ * {@code risk_assessment_cache}, which is consulted on a memory miss so warm
+ * results survive a restart; a result loaded from there keeps the row's
+ * expiry instead of starting a new one. A failing database only costs the
+ * persistent tier, never the assessment.
+ *
+ * Hits and misses are counted per calling endpoint; see {@link #stats()}.
+ */
+@Service
+public class RiskAssessmentCache {
+    private static final Logger logger = LoggerFactory.getLogger(RiskAssessmentCache.class);
+    private static final TypeReference<Map<String, Double>> RESULT_TYPE = new TypeReference<>() {
+    };
+
+    private final RiskAssessmentCacheRepository repository;
+    private final AIServiceProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AsyncCache<String, Assessment> memory;
+    private final Map<String, EndpointCounters> counters = new ConcurrentHashMap<>();
+    private final AtomicReference<LocalDateTime> lastPurge = new AtomicReference<>(LocalDateTime.now());
+
+    public RiskAssessmentCache(RiskAssessmentCacheRepository repository,
+                               AIServiceProperties properties,
+                               ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+
+        this.memory = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, properties.getAssessmentCacheSize()))
+                .expireAfter(new UntilExpiresAt())
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * The cached assessment of the item, or the one {@code assess} returns,
+     * which is then cached. {@code endpoint} names the caller for
+     * {@link #stats()}.
+     */
+    public Map<String, Double> get(String endpoint, ComplianceItem item, Supplier<Map<String, Double>> assess) {
+        if (!properties.isEnableCache()) {
+            return assess.get();
+        }
+        EndpointCounters endpointCounters = counters.computeIfAbsent(endpoint, name -> new EndpointCounters());
+        String hash = payloadHash(item);
+
+        CompletableFuture<Assessment> created = new CompletableFuture<>();
+        CompletableFuture<Assessment> pending = memory.get(hash, (key, executor) -> created);
+        if (pending != created) {
+            endpointCounters.hits.incrementAndGet();
+            Assessment assessment = join(pending);
+            return assessment != null ? assessment.getResult() : null;
+        }
+
+        try {
+            Assessment assessment = fromDatabase(hash);
+            if (assessment != null) {
+                endpointCounters.persistentHits.incrementAndGet();
+            } else {
+                endpointCounters.misses.incrementAndGet();
+                Map<String, Double> assessed = assess.get();
+                assessment = assessed != null ? store(hash, assessed) : null;
+            }
+            // A null result removes the entry again
+            created.complete(assessment);
+            return assessment != null ? assessment.getResult() : null;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /** Waits for another caller's assessment and rethrows its failure as is. */
+    private static Assessment join(CompletableFuture<Assessment> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        counters.forEach((endpoint, endpointCounters) -> endpoints.put(endpoint, endpointCounters.toMap()));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("entries", memory.synchronous().estimatedSize());
+        response.put("evictions", memory.synchronous().stats().evictionCount());
+        response.put("persistent", properties.isAssessmentCachePersistent());
+        response.put("endpoints", endpoints);
+        return response;
+    }
+
+    private Assessment fromDatabase(String hash) {
+        if (!properties.isAssessmentCachePersistent()) {
+            return null;
+        }
+        try {
+            RiskAssessmentCacheRepository.CachedResult cached = repository.find(hash);
+            if (cached == null) {
+                return null;
+            }
+            return new Assessment(Collections.unmodifiableMap(objectMapper.readValue(cached.getResult(), RESULT_TYPE)),
+                    cached.getExpiresAt());
+        } catch (DataAccessException | JsonProcessingException e) {
+            logger.warn("Could not read cached risk assessment {}: {}", hash, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * An unmodifiable copy of the result with its expiry, also written to the
+     * persistent tier when enabled.
+     */
+    private Assessment store(String hash, Map<String, Double> result) {
+        Map<String, Double> copy = Collections.unmodifiableMap(new LinkedHashMap<>(result));
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusMinutes(properties.getCacheExpirationMinutes());
+        Assessment assessment = new Assessment(copy, expiresAt);
+        if (!properties.isAssessmentCachePersistent()) {
+            return assessment;
+        }
+
+        try {
+            repository.save(hash, objectMapper.writeValueAsString(copy), expiresAt);
+            LocalDateTime purged = lastPurge.get();
+            if (purged.plusMinutes(properties.getCacheExpirationMinutes()).isBefore(now)
+                    && lastPurge.compareAndSet(purged, now)) {
+                int deleted = repository.deleteExpired();
+                logger.debug("Removed {} expired risk assessments", deleted);
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            logger.warn("Could not persist risk assessment {}: {}", hash, e.getMessage());
+        }
+        return assessment;
+    }
+
+    /**
+     * Hex SHA-256 of the fields the assessment depends on, each written with
+     * its length so that no two different payloads share an encoding. The
+     * deadline counts by day and documents regardless of order.
+     */
+    private String payloadHash(ComplianceItem item) {
+        List<String> documents = item.getDocuments() != null ? new ArrayList<>(item.getDocuments()) : null;
+        if (documents != null) {
+            Collections.sort(documents);
+        }
+
+        StringBuilder payload = new StringBuilder();
+        append(payload, properties.getModelVersion());
+        append(payload, item.getType());
+        append(payload, item.getRequirements());
+        append(payload, item.getDeadline() != null ? item.getDeadline().toLocalDate().toString() : null);
+        append(payload, item.getStatus());
+        append(payload, documents);
+        append(payload, item.getHistoricalData());
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(payload.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void append(StringBuilder payload, String value) {
+        if (value == null) {
+            payload.append("-;");
+        } else {
+            payload.append(value.length()).append(':').append(value).append(';');
+        }
+    }
+
+    private static void append(StringBuilder payload, List<String> values) {
+        if (values == null) {
+            payload.append("-;");
+            return;
+        }
+        payload.append(values.size()).append('[');
+        for (String value : values) {
+            append(payload, value);
+        }
+        payload.append(']');
+    }
+
+    @Value
+    private static class Assessment {
+        Map<String, Double> result;
+        LocalDateTime expiresAt;
+    }
+
+    /** Keeps each entry until its own {@code expiresAt}; reads do not extend it. */
+    private static final class UntilExpiresAt implements Expiry<String, Assessment> {
+        @Override
+        public long expireAfterCreate(String key, Assessment value, long currentTime) {
+            return Math.max(0, Duration.between(LocalDateTime.now(), value.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Assessment value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Assessment value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static final class EndpointCounters {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong persistentHits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+
+        Map<String, Object> toMap() {
+            long memoryHits = hits.get();
+            long databaseHits = persistentHits.get();
+            long missed = misses.get();
+            long requests = memoryHits + databaseHits + missed;
+
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("requests", requests);
+            map.put("hits", memoryHits);
+            map.put("persistentHits", databaseHits);
+            map.put("misses", missed);
+            map.put("hitRate", requests == 0 ? 0.0 : (double) (memoryHits + databaseHits) / requests);
+            return map;
+        }
+    }
+}
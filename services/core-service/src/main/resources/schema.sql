@@ -39,4 +39,41 @@ CREATE TABLE IF NOT EXISTS compliance_evidence (
     description TEXT,
     uploaded_by VARCHAR(100),
     upload_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
\ No newline at end of file
+);
+
+-- Create risk_analyses table
+CREATE TABLE IF NOT EXISTS risk_analyses (
+    id BIGSERIAL PRIMARY KEY,
+    compliance_item_id BIGINT NOT NULL,
+    overall_score DOUBLE PRECISION NOT NULL,
+    risk_level VARCHAR(50) NOT NULL,
+    analysis_date TIMESTAMP NOT NULL,
+    assessment_summary VARCHAR(255),
+    recommended_actions VARCHAR(255),
+    version BIGINT
+);
+
+-- Keyset paging of risk history and the previous-analysis lookup
+CREATE INDEX IF NOT EXISTS idx_risk_analyses_item_date ON risk_analyses (compliance_item_id, analysis_date, id);
+
+-- Create risk_factors table
+CREATE TABLE IF NOT EXISTS risk_factors (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    score DOUBLE PRECISION NOT NULL,
+    weight DOUBLE PRECISION NOT NULL,
+    description VARCHAR(255),
+    risk_analysis_id BIGINT REFERENCES risk_analyses(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_risk_factors_analysis ON risk_factors (risk_analysis_id);
+
+-- Create risk_assessment_cache table
+CREATE TABLE IF NOT EXISTS risk_assessment_cache (
+    payload_hash CHAR(64) PRIMARY KEY,
+    result TEXT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_risk_assessment_cache_expires_at ON risk_assessment_cache (expires_at);
@@ -4,15 +4,21 @@ import com.complitracker.document.model.Document;
 import com.complitracker.document.model.DocumentStatus;
 import com.complitracker.document.service.DocumentService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 @RestController
@@ -48,17 +54,60 @@ public class DocumentController {
         return ResponseEntity.ok(document);
     }
 
+    /**
+     * Streams the file from storage without holding it in memory. A single
+     * byte range is honoured with 206; multi-range requests get the whole file.
+     */
     @GetMapping("/{id}/download")
-    public ResponseEntity<ByteArrayResource> downloadDocument(@PathVariable Long id) {
+    public ResponseEntity<StreamingResponseBody> downloadDocument(
+            @PathVariable Long id,
+            @RequestHeader HttpHeaders requestHeaders) {
         Document document = documentService.getDocumentById(id);
-        byte[] data = documentService.downloadDocument(id);
-        ByteArrayResource resource = new ByteArrayResource(data);
+        long size = document.getSize();
+
+        List<HttpRange> ranges;
+        try {
+            ranges = requestHeaders.getRange();
+        } catch (IllegalArgumentException e) {
+            ranges = Collections.emptyList();
+        }
+
+        long start = 0;
+        long length = size;
+        HttpStatus status = HttpStatus.OK;
+        HttpHeaders headers = new HttpHeaders();
+        if (ranges.size() == 1) {
+            HttpRange range = ranges.get(0);
+            if (size == 0 || range.getRangeStart(size) >= size) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                        .build();
+            }
+            start = range.getRangeStart(size);
+            long end = range.getRangeEnd(size);
+            length = end - start + 1;
+            status = HttpStatus.PARTIAL_CONTENT;
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+
+        long offset = start;
+        long count = length;
+        StreamingResponseBody body = outputStream -> {
+            if (count == 0) {
+                return;
+            }
+            try (InputStream inputStream = documentService.openDocument(document, offset, count)) {
+                StreamUtils.copyRange(inputStream, outputStream, 0, count - 1);
+            }
+        };
 
-        return ResponseEntity.ok()
+        return ResponseEntity.status(status)
+                .headers(headers)
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + document.getName() + "\"")
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
                 .contentType(MediaType.parseMediaType(document.getContentType()))
-                .contentLength(document.getSize())
-                .body(resource);
+                .contentLength(length)
+                .body(body);
     }
 
     @DeleteMapping("/{id}")
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.Set;
 
 @Slf4j
@@ -73,9 +74,8 @@ public class DocumentService {
         documentRepository.delete(document);
     }
 
-    public byte[] downloadDocument(Long id) {
-        Document document = getDocumentById(id);
-        return storageService.downloadDocument(document.getS3Key());
+    public InputStream openDocument(Document document, long start, long length) {
+        return storageService.openDocument(document.getS3Key(), start, length);
     }
 
     public Document getDocumentById(Long id) {
@@ -7,6 +7,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -45,10 +48,11 @@ public class LocalStorageService implements StorageService {
     }
 
     @Override
-    public byte[] downloadDocument(String key) {
+    public InputStream openDocument(String key, long start, long length) {
         try {
-            Path file = rootLocation.resolve(key);
-            return Files.readAllBytes(file);
+            SeekableByteChannel channel = Files.newByteChannel(rootLocation.resolve(key));
+            channel.position(start);
+            return Channels.newInputStream(channel);
         } catch (IOException e) {
             log.error("Failed to read stored file", e);
             throw new RuntimeException("Failed to read stored file", e);
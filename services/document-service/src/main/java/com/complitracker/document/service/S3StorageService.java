@@ -11,6 +11,7 @@ import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.UUID;
 
 @Slf4j
@@ -45,16 +46,19 @@ public class S3StorageService implements StorageService {
     }
 
     @Override
-    public byte[] downloadDocument(String key) {
+    public InputStream openDocument(String key, long start, long length) {
+        if (length == 0) {
+            return InputStream.nullInputStream();
+        }
         try {
             GetObjectRequest getObjectRequest = GetObjectRequest.builder()
                     .bucket(bucketName)
                     .key(key)
+                    .range("bytes=" + start + "-" + (start + length - 1))
                     .build();
 
-            return s3Client.getObject(getObjectRequest)
-                    .readAllBytes();
-        } catch (IOException | S3Exception e) {
+            return s3Client.getObject(getObjectRequest);
+        } catch (S3Exception e) {
             log.error("Error downloading document from S3", e);
             throw new RuntimeException("Failed to download document", e);
         }
@@ -2,8 +2,17 @@ package com.complitracker.document.service;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+
 public interface StorageService {
     String uploadDocument(MultipartFile file, String prefix);
-    byte[] downloadDocument(String key);
+
+    /**
+     * Opens the stored document positioned at byte {@code start}. The stream
+     * holds at least {@code length} bytes from there; callers read no further
+     * and close it when done.
+     */
+    InputStream openDocument(String key, long start, long length);
+
     void deleteDocument(String key);
 }
\ No newline at end of file